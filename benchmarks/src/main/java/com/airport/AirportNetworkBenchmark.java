@@ -0,0 +1,45 @@
+package com.airport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole AirportNetwork run with every phase sleep and flight time skipped
+ * (SimClock.NO_SLEEP): the same 1024 planes flying 4 legs each, spread over
+ * more or fewer airports. With independent ATCs, the time per run should
+ * fall as airports are added until every CPU is busy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AirportNetworkBenchmark {
+
+    @Param({"1", "4", "16"})
+    int airports;
+
+    @Benchmark
+    public long simulate() throws InterruptedException {
+        AirportNetwork network = AirportNetwork.builder()
+                .airports(airports)
+                .planesPerAirport(1024 / airports)
+                .legs(4)
+                .clock(SimClock.NO_SLEEP)
+                .seed(1)
+                .build();
+        network.run();
+        return network.getLegsFlown();
+    }
+}
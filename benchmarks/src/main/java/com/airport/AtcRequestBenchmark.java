@@ -0,0 +1,75 @@
+package com.airport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the ATC decision path: one complete plane visit (landing,
+ * runway release, refuel, gate release, takeoff, departure) pushed through
+ * Airport.processRequest on the benchmark thread. No ATC thread, no
+ * sleeping and no logging, so only scheduling work is measured.
+ *
+ * The plane's reusable request channel carries every call, as in the
+ * threaded run, so the visit should allocate nothing: run with -prof gc and
+ * gc.alloc.rate.norm stays at ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AtcRequestBenchmark {
+
+    @Param({"3", "64", "512"})
+    int gates;
+
+    private Airport airport;
+    private Plane plane;
+
+    @Setup
+    public void setUp() {
+        airport = new Airport(new GateAllocator(gates - 1, 0, 1), SimClock.NO_SLEEP, EventLog.SILENT);
+        // A normal plane, so every visit takes the same gate path
+        plane = new Plane(1, 40, false, airport, ExecutionMode.PLATFORM);
+    }
+
+    @Benchmark
+    public Gate planeVisit() {
+        Airport.ATCRequest request = plane.getAtcRequest();
+        request.reset(Airport.RequestType.LANDING_REQUEST);
+        airport.processRequest(request);
+        Gate gate = request.assignedGate;
+        send(request, Airport.RequestType.RUNWAY_RELEASE);
+        send(request, Airport.RequestType.REFUEL_REQUEST);
+        int truck = request.truck;
+        request.reset(Airport.RequestType.REFUEL_RELEASE);
+        request.truck = truck;
+        airport.processRequest(request);
+
+        request.reset(Airport.RequestType.GATE_RELEASE);
+        request.assignedGate = gate;
+        airport.processRequest(request);
+
+        send(request, Airport.RequestType.TAKEOFF_REQUEST);
+        send(request, Airport.RequestType.RUNWAY_RELEASE);
+        send(request, Airport.RequestType.DEPARTURE_RECORD);
+        return gate;
+    }
+
+    private void send(Airport.ATCRequest request, Airport.RequestType type) {
+        request.reset(type);
+        airport.processRequest(request);
+    }
+}
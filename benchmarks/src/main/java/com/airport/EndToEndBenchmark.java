@@ -0,0 +1,55 @@
+package com.airport;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole simulation with a live ATC thread and every phase sleep skipped
+ * (SimClock.NO_SLEEP). The time per run is the cost of the ATC round
+ * trips and thread hand-offs for the given fleet size and thread model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EndToEndBenchmark {
+
+    @Param({"100", "1000"})
+    int planes;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ExecutionMode mode;
+
+    @Benchmark
+    public long simulate() throws InterruptedException {
+        Airport airport = new Airport(new GateAllocator(2, 0, 1), SimClock.NO_SLEEP, EventLog.SILENT);
+        Thread atc = new Thread(airport, "ATC");
+        atc.start();
+
+        Future<?>[] tasks = new Future<?>[planes];
+        for (int i = 0; i < planes; i++) {
+            // Every fifth plane is an emergency, the same ones in every run
+            tasks[i] = mode.launchPlane("PLANE-" + (i + 1), new Plane(i + 1, 40, i % 5 == 0, airport, mode));
+        }
+        for (Future<?> task : tasks) {
+            ExecutionMode.await(task);
+        }
+
+        airport.shutdown();
+        atc.join();
+        return airport.getStatistics().getPlanesServed();
+    }
+}
@@ -0,0 +1,59 @@
+package com.airport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gate allocate/release cost as the number of gates and the share already
+ * occupied grow. Both should stay flat.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GateAllocatorBenchmark {
+
+    @Param({"4", "64", "512"})
+    int gates;
+
+    @Param({"0", "50", "99"})
+    int occupiedPercent;
+
+    private GateAllocator allocator;
+
+    @Setup
+    public void setUp() {
+        allocator = new GateAllocator(gates - 1, 0, 1);
+        int occupied = Math.min(gates - 2, gates * occupiedPercent / 100);
+        for (int i = 0; i < occupied; i++) {
+            allocator.allocate(GateClass.NORMAL);
+        }
+    }
+
+    @Benchmark
+    public Gate normalPlane() {
+        Gate gate = allocator.allocate(GateClass.NORMAL, GateClass.WIDE_BODY);
+        allocator.release(gate);
+        return gate;
+    }
+
+    @Benchmark
+    public Gate emergencyPlane() {
+        Gate gate = allocator.allocate(GateClass.EMERGENCY, GateClass.NORMAL, GateClass.WIDE_BODY);
+        allocator.release(gate);
+        return gate;
+    }
+}
@@ -0,0 +1,68 @@
+package com.airport;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Landing queue operations with a standing queue of holding planes.
+ * The queue depth stays constant: each operation adds one plane and
+ * takes one out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LandingQueueBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int depth;
+
+    private LandingQueue<Integer> queue;
+    private Random random;
+    private int nextId;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        queue = new LandingQueue<>(Config.LANDING_AGING_MS);
+        random = new Random(42);
+        for (nextId = 0; nextId < depth; nextId++) {
+            queue.add(nextId, nextId, nextId % 5 == 0, now++);
+        }
+    }
+
+    @Benchmark
+    public Integer addThenGrantHead() {
+        int id = nextId++;
+        queue.add(id, id, id % 5 == 0, now++);
+        return queue.poll();
+    }
+
+    @Benchmark
+    public Integer addThenRemoveById() {
+        int id = nextId++;
+        queue.add(id, id, id % 5 == 0, now++);
+        // Any id in the live window [nextId - depth - 1, nextId) may be queued
+        Integer removed = queue.remove(nextId - 1 - random.nextInt(depth + 1));
+        return removed != null ? removed : queue.poll();
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return queue.contains(random.nextInt(nextId));
+    }
+}
@@ -0,0 +1,77 @@
+package com.airport;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Statistics.recordPlane under 1, 4 and 16 concurrent recorders sharing
+ * one Statistics instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StatisticsBenchmark {
+
+    private Statistics stats;
+
+    @Setup
+    public void setUp() {
+        stats = new Statistics(SimClock.NO_SLEEP);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void recordPlane1Thread(Sample sample) {
+        record(sample);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordPlane4Threads(Sample sample) {
+        record(sample);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void recordPlane16Threads(Sample sample) {
+        record(sample);
+    }
+
+    // Each thread cycles through the same fixed sample of planes
+    private void record(Sample sample) {
+        int i = sample.next++ & (Sample.SIZE - 1);
+        stats.recordPlane(sample.passengers[i], sample.waitTimes[i]);
+    }
+
+    @State(Scope.Thread)
+    public static class Sample {
+        static final int SIZE = 1024;
+        final int[] passengers = new int[SIZE];
+        final long[] waitTimes = new long[SIZE];
+        int next;
+
+        @Setup
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < SIZE; i++) {
+                passengers[i] = random.nextInt(51);
+                waitTimes[i] = random.nextLong(60_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,843 @@
+package com.airport;
+
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * The airport's resources and its ATC.
+ *
+ * ATC is split into three controllers, each with its own request channel
+ * and thread and each the only owner of its resources: runway (slots,
+ * separation, takeoffs), ground (landing queue, gates, ground capacity,
+ * departures) and refuel (trucks). A refuel grant never waits behind a
+ * landing decision. A landing needs all of ground capacity, a gate and a
+ * runway slot, and takes them in a fixed order without a shared lock:
+ * GROUND reserves capacity and a gate for the head of the landing queue,
+ * then forwards the request to RUNWAY, which clears the plane to land in
+ * the next arrival slot. The plane is answered only then, so it never sees
+ * a partial grant, and the fixed order rules out deadlock.
+ */
+public class Airport implements Runnable {
+    private final GateAllocator gates; // Owned by the ground controller
+    private final RunwaySequencer runways; // Slots and separation for every runway; runway controller
+    private final Semaphore airportCapacity; // Ground controller; others only read the permit count
+    private final LandingQueue<ATCRequest> landingQueue; // Emergencies first, FIFO with aging; ground controller
+    private final LandingQueue<ATCRequest> clearedArrivals; // Gate reserved, waiting for a runway slot
+    private final Queue<ATCRequest> takeoffWaiters; // Parked until a runway slot opens
+    private final RefuelDispatcher<ATCRequest> refuelDispatcher; // Trucks, and planes parked for one
+    private final RunwayControl runwayControl;
+    private final GroundControl groundControl;
+    private final RefuelControl refuelControl;
+    private volatile boolean running;
+    private final Statistics stats;
+    private final ResourceMeter runwayMeter;
+    private final ResourceMeter[] runwayMeters; // Indexed by runway number - 1; empty with a single runway
+    private final ResourceMeter refuelMeter;
+    private final ResourceMeter[] truckMeters; // Indexed by truck number - 1; empty with a single truck
+    private final ResourceMeter groundMeter;
+    private final ResourceMeter[] gateMeters; // Indexed by gate id - 1
+    private final SimClock clock;
+    private final EventLog log;
+    private final EventJournal journal;
+    private final AirportConfig config;
+    private final AtcMetrics metrics; // Published for MetricsServer
+    private final ContentionProfiler profiler; // Waits, decision rounds and holds; scanned by StarvationWatchdog
+
+    // Reasons the head of the landing queue is held (journaled by ordinal)
+    enum HoldReason {
+        AT_CAPACITY("Airport at capacity"),
+        RUNWAY_BUSY("Runway busy"),
+        SEPARATION("Waiting for runway separation"),
+        NO_GATE("No suitable gate available");
+
+        private final String message;
+
+        HoldReason(String message) {
+            this.message = message;
+        }
+
+        String getMessage() {
+            return message;
+        }
+    }
+
+    // Request types for ATC (package-private so benchmarks can drive processRequest)
+    enum RequestType {
+        LANDING_REQUEST(false, AtcController.Kind.GROUND), // Forwarded to RUNWAY once the ground is reserved
+        RUNWAY_RELEASE(true, AtcController.Kind.RUNWAY),
+        TAKEOFF_REQUEST(false, AtcController.Kind.RUNWAY),
+        REFUEL_REQUEST(false, AtcController.Kind.REFUEL),
+        REFUEL_RELEASE(true, AtcController.Kind.REFUEL),
+        GATE_RELEASE(true, AtcController.Kind.GROUND),
+        DEPARTURE_RECORD(true, AtcController.Kind.GROUND),
+        SHUTDOWN(false, null); // Sentinel, sent to every controller: everything queued before it is drained first
+
+        final boolean release; // Frees a resource; applied before grants in a batch
+        final AtcController.Kind controller; // Controller the request is sent to
+
+        RequestType(boolean release, AtcController.Kind controller) {
+            this.release = release;
+            this.controller = controller;
+        }
+    }
+
+    /**
+     * Request/response channel between one plane and ATC. Each plane owns
+     * one and reuses it for every call, since a plane never has more than
+     * one request outstanding: the caller resets it, pushes it into the
+     * mailbox and parks until ATC completes it. Nothing is allocated per
+     * round trip. The async API completes a future instead of unparking.
+     */
+    static class ATCRequest {
+        RequestType type;
+        final Plane plane;
+        Gate assignedGate;
+        int truck; // Refuel truck granted or being released
+        long waitTime;
+        boolean granted; // Whether the request was granted or denied
+        HoldReason holdReason; // Last reason announced while parked
+        boolean forwarded; // Landing handed from GROUND to RUNWAY
+        // Batch of the last grant, per controller; each slot is written only by
+        // its controller, whose batch numbers start at 1
+        final long[] grantedInBatch = new long[AtcController.Kind.values().length];
+        ATCRequest next; // Mailbox link, only touched while queued
+        // ContentionProfiler stamps; StarvationWatchdog reads submittedNanos
+        // after done, which reset() writes after it
+        long submittedNanos; // Call started
+        long forwardedNanos; // Handed from GROUND to RUNWAY
+        long arrivedInBatch; // Batch of the current controller it arrived in
+        int rounds; // Controller batches spent parked before the grant
+        long flaggedNanos; // submittedNanos of the last call flagged; watchdog only
+        ContentionProfiler watchedBy; // Profiler tracking this channel, until it departs
+        final long[] heldSince = new long[ContentionProfiler.Resource.values().length]; // Simulated ms
+        private volatile Thread waiter;
+        private volatile boolean done;
+        private CompletableFuture<ATCRequest> response; // Set for async calls only
+
+        ATCRequest(Plane plane) {
+            this.plane = plane;
+        }
+
+        ATCRequest(RequestType type, Plane plane) {
+            this(plane);
+            this.type = type;
+        }
+
+        // Prepares the channel for a new call; fields written before the
+        // mailbox push are visible to ATC
+        void reset(RequestType type) {
+            this.type = type;
+            this.assignedGate = null;
+            this.truck = RefuelDispatcher.NO_TRUCK;
+            this.waitTime = 0;
+            this.granted = false; // Set by ATC when the request is granted
+            this.holdReason = null;
+            this.forwarded = false;
+            this.rounds = 0;
+            this.response = null;
+            this.submittedNanos = System.nanoTime();
+            this.done = false; // Last: whoever sees the new call sees its stamp
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        // Called by ATC once the response fields are set
+        void complete() {
+            CompletableFuture<ATCRequest> callback = response;
+            done = true;
+            if (callback != null) {
+                response = null;
+                callback.complete(this);
+            } else {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+        void await() throws InterruptedException {
+            while (!done) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    public Airport(int numGates) {
+        this(numGates, SimClock.SYSTEM);
+    }
+
+    public Airport(int numGates, SimClock clock) {
+        // The last gate is reserved for emergencies
+        this(new GateAllocator(numGates - 1, 0, 1), clock);
+    }
+
+    public Airport(GateAllocator gates, SimClock clock) {
+        this(gates, clock, EventLog.console());
+    }
+
+    public Airport(GateAllocator gates, SimClock clock, EventLog log) {
+        this(gates, clock, log, AirportConfig.DEFAULT);
+    }
+
+    public Airport(GateAllocator gates, SimClock clock, EventLog log, AirportConfig config) {
+        this(gates, clock, log, config, EventJournal.DISABLED);
+    }
+
+    public Airport(GateAllocator gates, SimClock clock, EventLog log, AirportConfig config, EventJournal journal) {
+        this.clock = clock;
+        this.log = log;
+        this.journal = journal;
+        this.config = config;
+        this.gates = gates;
+
+        // Separation is simulated time, so it is skipped along with sleeps
+        this.runways = new RunwaySequencer(config.getRunways(),
+                clock.timerDelay(config.getArrivalSeparationMs()),
+                clock.timerDelay(config.getDepartureSeparationMs()));
+        this.airportCapacity = new Semaphore(config.getGroundCapacity()); // Max planes on ground
+        this.landingQueue = new LandingQueue<>(Config.LANDING_AGING_MS);
+        this.clearedArrivals = new LandingQueue<>(Config.LANDING_AGING_MS);
+        this.takeoffWaiters = new ArrayDeque<>();
+        this.refuelDispatcher = new RefuelDispatcher<>(config.getRefuelTrucks(), config.getRefuelPolicy());
+        this.running = true;
+        this.stats = new Statistics(clock);
+        this.runwayMeter = stats.newMeter(config.getRunways() > 1 ? "Runways" : "Runway", config.getRunways());
+        this.runwayMeters = new ResourceMeter[config.getRunways() > 1 ? config.getRunways() : 0];
+        for (int i = 0; i < runwayMeters.length; i++) {
+            runwayMeters[i] = stats.newMeter("Runway " + (i + 1), 1);
+        }
+        this.refuelMeter = stats.newMeter("Refuel trucks", config.getRefuelTrucks());
+        this.truckMeters = new ResourceMeter[config.getRefuelTrucks() > 1 ? config.getRefuelTrucks() : 0];
+        for (int i = 0; i < truckMeters.length; i++) {
+            truckMeters[i] = stats.newMeter("Refuel truck " + (i + 1), 1);
+        }
+        this.groundMeter = stats.newMeter("Ground capacity", config.getGroundCapacity());
+        this.gateMeters = new ResourceMeter[gates.size()];
+        for (Gate gate : gates.getGates()) {
+            gateMeters[gate.getId() - 1] = stats.newMeter("Gate " + gate.getId() +
+                    " (" + gate.getGateClass() + ")", 1);
+        }
+        this.metrics = new AtcMetrics(config.getRunways(), gates.size());
+        this.profiler = new ContentionProfiler();
+        this.runwayControl = new RunwayControl();
+        this.groundControl = new GroundControl();
+        this.refuelControl = new RefuelControl();
+        runwayControl.publishMetrics();
+        groundControl.publishMetrics();
+        refuelControl.publishMetrics();
+        journal.begin(clock.now(), gates.size(), config);
+    }
+
+    /**
+     * Runs ATC: the runway controller on the calling thread, and the ground
+     * and refuel controllers on threads named after it ("ATC-Ground",
+     * "ATC-Refuel"). Returns once shutdown() has been processed by all three.
+     */
+    @Override
+    public void run() {
+        log.info("Air Traffic Control online");
+        String name = Thread.currentThread().getName();
+        Thread ground = new Thread(groundControl, name + "-Ground");
+        Thread refuel = new Thread(refuelControl, name + "-Refuel");
+        ground.start();
+        refuel.start();
+        runwayControl.run();
+        try {
+            ground.join();
+            refuel.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Air Traffic Control shutting down");
+    }
+
+    /**
+     * Handles one request on the calling thread, along with anything it
+     * hands to another controller, while no controller thread is running.
+     * Package-private so benchmarks can measure the decision path alone.
+     */
+    void processRequest(ATCRequest request) {
+        profiler.submitted(request);
+        controller(request.type).enqueue(request);
+        boolean busy = true;
+        while (busy) {
+            busy = groundControl.drainInline() | runwayControl.drainInline() | refuelControl.drainInline();
+        }
+    }
+
+    private AtcController controller(RequestType type) {
+        switch (type.controller) {
+            case RUNWAY:
+                return runwayControl;
+            case GROUND:
+                return groundControl;
+            default:
+                return refuelControl;
+        }
+    }
+
+    /**
+     * Runway slots and separation: clears arrivals the ground controller
+     * has reserved a gate for, and departures, alternating between them.
+     */
+    private final class RunwayControl extends AtcController {
+        RunwayControl() {
+            super(Kind.RUNWAY, metrics, profiler, clock);
+        }
+
+        @Override
+        void apply(ATCRequest request) {
+            switch (request.type) {
+                case LANDING_REQUEST:
+                    // Forwarded by GROUND with a gate reserved
+                    clearedArrivals.add(request.plane.getId(), request, request.plane.isEmergency(), clock.now());
+                    break;
+                case RUNWAY_RELEASE:
+                    handleRunwayRelease(request);
+                    break;
+                case TAKEOFF_REQUEST:
+                    handleTakeoffRequest(request);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Fill every open runway slot. Arrivals and departures alternate;
+        // departures go first while ground capacity is what holds arrivals,
+        // since each one frees a gate and a ground slot
+        @Override
+        void dispatch() {
+            long now = clock.now();
+            wakeAt = Long.MAX_VALUE;
+            boolean granted = true;
+            while (granted) {
+                boolean groundBound = airportCapacity.availablePermits() == 0;
+                if (runways.firstChoice(groundBound) == RunwaySequencer.Movement.DEPARTURE) {
+                    granted = tryGrantTakeoff(now) || tryGrantLanding(now);
+                } else {
+                    granted = tryGrantLanding(now) || tryGrantTakeoff(now);
+                }
+            }
+        }
+
+        @Override
+        void publishMetrics() {
+            metrics.gauge(AtcMetrics.Gauge.CLEARED_ARRIVALS, clearedArrivals.size());
+            metrics.gauge(AtcMetrics.Gauge.TAKEOFF_QUEUE, takeoffWaiters.size());
+        }
+
+        private boolean tryGrantTakeoff(long now) {
+            ATCRequest request = takeoffWaiters.peek();
+            if (request == null) {
+                return false;
+            }
+            int runway = runways.available(RunwaySequencer.Movement.DEPARTURE, now);
+            if (runway == RunwaySequencer.NO_RUNWAY) {
+                wakeAt = Math.min(wakeAt, runways.nextSlot(RunwaySequencer.Movement.DEPARTURE));
+                return false;
+            }
+            takeoffWaiters.poll();
+            occupyRunway(runway, RunwaySequencer.Movement.DEPARTURE, request, now);
+            journal.takeoffGranted(now, request.plane.getId(), runway);
+            log.info("Runway {} cleared for takeoff (Plane {})", runway, request.plane.getId());
+            grant(request);
+            return true;
+        }
+
+        private boolean tryGrantLanding(long now) {
+            // Emergencies first among the planes that already have a gate
+            ATCRequest request = clearedArrivals.peek();
+            if (request == null) {
+                return false;
+            }
+            Plane plane = request.plane;
+
+            int runway = runways.available(RunwaySequencer.Movement.ARRIVAL, now);
+            if (runway == RunwaySequencer.NO_RUNWAY) {
+                long slot = runways.nextSlot(RunwaySequencer.Movement.ARRIVAL);
+                wakeAt = Math.min(wakeAt, slot);
+                announceHold(request, slot == Long.MAX_VALUE ? HoldReason.RUNWAY_BUSY : HoldReason.SEPARATION, now);
+                return false;
+            }
+
+            clearedArrivals.poll();
+            occupyRunway(runway, RunwaySequencer.Movement.ARRIVAL, request, now);
+            journal.landingGranted(now, plane.getId(), runway, request.assignedGate.getId(),
+                    now - plane.getArrivalTime());
+            log.info("Cleared Plane {} to land on runway {} at Gate {}", plane.getId(), runway,
+                    request.assignedGate.getId());
+            grant(request);
+            return true;
+        }
+    }
+
+    /**
+     * The landing queue, gates and ground capacity: reserves a gate and a
+     * ground slot for the head of the landing queue and hands the plane to
+     * the runway controller; takes gates and capacity back.
+     */
+    private final class GroundControl extends AtcController {
+        GroundControl() {
+            super(Kind.GROUND, metrics, profiler, clock);
+        }
+
+        @Override
+        void apply(ATCRequest request) {
+            switch (request.type) {
+                case LANDING_REQUEST:
+                    handleLandingRequest(request);
+                    break;
+                case GATE_RELEASE:
+                    handleGateRelease(request);
+                    break;
+                case DEPARTURE_RECORD:
+                    handleDepartureRecord(request);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Reserves ground for landing-queue heads in order until one has to hold
+        @Override
+        void dispatch() {
+            long now = clock.now();
+            while (tryReserveGround(now)) {
+                // Keep going while capacity and gates last
+            }
+        }
+
+        @Override
+        void publishMetrics() {
+            metrics.gauge(AtcMetrics.Gauge.LANDING_QUEUE, landingQueue.size());
+            metrics.gauge(AtcMetrics.Gauge.EMERGENCY_QUEUE, landingQueue.emergencyCount());
+            metrics.gauge(AtcMetrics.Gauge.GROUND_PERMITS, airportCapacity.availablePermits());
+        }
+
+        private boolean tryReserveGround(long now) {
+            // Enforce queue order - emergency planes have priority, then FIFO order
+            ATCRequest request = landingQueue.peek();
+            if (request == null) {
+                return false;
+            }
+            Plane plane = request.plane;
+
+            // Check airport capacity first (non-blocking)
+            if (airportCapacity.availablePermits() == 0) {
+                announceHold(request, HoldReason.AT_CAPACITY, now);
+                return false;
+            }
+
+            // Take a gate off the free lists; only this controller allocates,
+            // so the check and the reservation are one step
+            Gate assignedGate = tryAssignGate(plane);
+            if (assignedGate == null) {
+                announceHold(request, HoldReason.NO_GATE, now);
+                return false;
+            }
+
+            airportCapacity.acquireUninterruptibly();
+            groundMeter.acquire(now);
+            gateMeters[assignedGate.getId() - 1].acquire(now);
+            profiler.acquired(ContentionProfiler.Resource.GROUND, request, now);
+            profiler.acquired(ContentionProfiler.Resource.GATE, request, now);
+            metrics.gateOccupied(assignedGate.getId(), true);
+            log.info("Gate {} reserved for Plane {}", assignedGate.getId(), plane.getId());
+            landingQueue.poll();
+
+            // Fields set before the push are visible to the runway controller
+            request.assignedGate = assignedGate;
+            request.grantedInBatch[kind.ordinal()] = batchNumber;
+            request.rounds += (int) (batchNumber - request.arrivedInBatch);
+            request.forwardedNanos = batchNanos;
+            request.forwarded = true;
+            runwayControl.enqueue(request);
+            return true;
+        }
+    }
+
+    /**
+     * Refuel trucks, handed to waiting planes in the dispatcher's policy order.
+     */
+    private final class RefuelControl extends AtcController {
+        RefuelControl() {
+            super(Kind.REFUEL, metrics, profiler, clock);
+        }
+
+        @Override
+        void apply(ATCRequest request) {
+            switch (request.type) {
+                case REFUEL_REQUEST:
+                    handleRefuelRequest(request);
+                    break;
+                case REFUEL_RELEASE:
+                    handleRefuelRelease(request);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        void dispatch() {
+            while (refuelDispatcher.canDispatch()) {
+                int truck = refuelDispatcher.takeTruck();
+                ATCRequest request = refuelDispatcher.poll();
+                long now = clock.now();
+                refuelMeter.acquire(now);
+                if (truckMeters.length > 0) {
+                    truckMeters[truck - 1].acquire(now);
+                }
+                profiler.acquired(ContentionProfiler.Resource.TRUCK, request, now);
+                journal.refuelGranted(now, request.plane.getId(), truck);
+                log.info("Refuel truck {} assigned to Plane {}", truck, request.plane.getId());
+                request.truck = truck;
+                grant(request);
+            }
+        }
+
+        @Override
+        void publishMetrics() {
+            metrics.gauge(AtcMetrics.Gauge.REFUEL_QUEUE, refuelDispatcher.size());
+            metrics.gauge(AtcMetrics.Gauge.FREE_TRUCKS, refuelDispatcher.freeTrucks());
+        }
+    }
+
+    private void handleLandingRequest(ATCRequest request) {
+        Plane plane = request.plane;
+
+        // Each plane sends one landing request and holds until it is granted
+        if (!landingQueue.add(plane.getId(), request, plane.isEmergency(), clock.now())) {
+            log.error("Plane {} is already in the landing queue", plane.getId());
+            respond(request);
+            return;
+        }
+        journal.arrival(plane.getArrivalTime(), plane.getId(), plane.getPassengers(), plane.isEmergency(),
+                plane.getRefuelTime());
+        if (plane.isEmergency()) {
+            log.info("EMERGENCY! Plane {} added to priority queue", plane.getId());
+        } else {
+            log.info("Plane {} added to landing queue (position: {})", plane.getId(), landingQueue.size());
+        }
+    }
+
+    private void handleRunwayRelease(ATCRequest request) {
+        long now = clock.now();
+        int runway = runways.release(request.plane.getId(), now);
+        metrics.runwayOccupant(runway, RunwaySequencer.NO_PLANE);
+        profiler.released(ContentionProfiler.Resource.RUNWAY, request, now);
+        runwayMeter.release(now);
+        if (runwayMeters.length > 0) {
+            runwayMeters[runway - 1].release(now);
+        }
+        journal.runwayReleased(now, request.plane.getId(), runway);
+        log.info("Runway {} released by Plane {}", runway, request.plane.getId());
+        respond(request);
+    }
+
+    private void handleTakeoffRequest(ATCRequest request) {
+        takeoffWaiters.add(request);
+        if (!runways.hasFreeRunway()) {
+            if (runways.getRunways() == 1) {
+                log.info("Runway busy (occupied by Plane {}) - Plane {} must wait for takeoff",
+                        runways.occupant(1), request.plane.getId());
+            } else {
+                log.info("All runways busy - Plane {} must wait for takeoff", request.plane.getId());
+            }
+        }
+    }
+
+    private void handleRefuelRequest(ATCRequest request) {
+        Plane plane = request.plane;
+        refuelDispatcher.add(request, plane.getRefuelTime(), plane.isEmergency(), clock.now());
+        if (refuelDispatcher.freeTrucks() == 0) {
+            log.info("All refuel trucks busy - Plane {} must wait", plane.getId());
+        }
+    }
+
+    private void handleRefuelRelease(ATCRequest request) {
+        long now = clock.now();
+        refuelDispatcher.releaseTruck(request.truck);
+        refuelMeter.release(now);
+        if (truckMeters.length > 0) {
+            truckMeters[request.truck - 1].release(now);
+        }
+        profiler.released(ContentionProfiler.Resource.TRUCK, request, now);
+        journal.refuelReleased(now, request.plane.getId(), request.truck);
+        log.info("Refuel truck {} available", request.truck);
+        respond(request);
+    }
+
+    private void handleGateRelease(ATCRequest request) {
+        long now = clock.now();
+        gates.release(request.assignedGate);
+        metrics.gateOccupied(request.assignedGate.getId(), false);
+        gateMeters[request.assignedGate.getId() - 1].release(now);
+        profiler.released(ContentionProfiler.Resource.GATE, request, now);
+        journal.gateReleased(now, request.plane.getId(), request.assignedGate.getId());
+        log.info("Gate {} is free", request.assignedGate.getId());
+        respond(request);
+    }
+
+    private void handleDepartureRecord(ATCRequest request) {
+        long now = clock.now();
+        airportCapacity.release();
+        groundMeter.release(now);
+        profiler.released(ContentionProfiler.Resource.GROUND, request, now);
+        stats.recordPlane(request.plane, request.waitTime);
+        journal.departed(now, request.plane.getId(), request.plane.getPassengers(), request.waitTime);
+        log.info("Plane {} departed. Airport capacity released.", request.plane.getId());
+        respond(request);
+    }
+
+    // Answers a request on the controller thread that decided it
+    private void respond(ATCRequest request) {
+        controller(request.type).respond(request);
+    }
+
+    private void occupyRunway(int runway, RunwaySequencer.Movement movement, ATCRequest request, long now) {
+        runways.occupy(runway, movement, request.plane.getId());
+        metrics.runwayOccupant(runway, request.plane.getId());
+        profiler.acquired(ContentionProfiler.Resource.RUNWAY, request, now);
+        runwayMeter.acquire(now);
+        if (runwayMeters.length > 0) {
+            runwayMeters[runway - 1].acquire(now);
+        }
+    }
+
+    // Logs why the head of the landing queue is holding, once per reason
+    private void announceHold(ATCRequest request, HoldReason reason, long now) {
+        if (reason == request.holdReason) {
+            return;
+        }
+        request.holdReason = reason;
+        metrics.hold(reason);
+        journal.hold(now, request.plane.getId(), reason.ordinal());
+        if (reason == HoldReason.RUNWAY_BUSY && runways.getRunways() == 1) {
+            log.info("Runway busy (occupied by Plane {}) - Plane {} holding in airspace",
+                    runways.occupant(1), request.plane.getId());
+        } else if (log.isEnabled(EventLog.Level.INFO)) {
+            log.info("{} - Plane {} holding in airspace", reason.getMessage(), request.plane.getId());
+        }
+    }
+
+    public Gate requestLanding(Plane plane) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.LANDING_REQUEST);
+
+        // Circle in airspace until ATC grants a runway slot and a gate
+        submit(request);
+        return request.assignedGate;
+    }
+
+    private Gate tryAssignGate(Plane plane) {
+        if (plane.isEmergency()) {
+            // Emergency planes prefer an emergency gate, but will use any available gate
+            Gate gate = gates.allocate(GateClass.EMERGENCY, GateClass.NORMAL, GateClass.WIDE_BODY);
+            if (gate == null) {
+                return null;
+            }
+            if (gate.getGateClass() == GateClass.EMERGENCY) {
+                log.info("Assigned emergency Plane {} to Gate {} (emergency gate)", plane.getId(), gate.getId());
+            } else {
+                log.info("Emergency gate occupied! Assigned emergency Plane {} to Gate {} (alternate)",
+                        plane.getId(), gate.getId());
+            }
+            return gate;
+        }
+
+        // Normal planes cannot use emergency gates - those are for emergencies only
+        Gate gate = gates.allocate(GateClass.NORMAL, GateClass.WIDE_BODY);
+        if (gate != null) {
+            log.info("Assigned normal Plane {} to Gate {}", plane.getId(), gate.getId());
+        }
+        return gate;
+    }
+
+    public void releaseRunway(Plane plane) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.RUNWAY_RELEASE);
+        submit(request);
+    }
+
+    public void requestRunwayForTakeoff(Plane plane) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.TAKEOFF_REQUEST);
+
+        // Parked by ATC until the runway is handed over
+        submit(request);
+    }
+
+    /**
+     * Waits for a refuel truck and returns its number, to be handed back
+     * through releaseRefuel.
+     */
+    public int requestRefuel(Plane plane) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.REFUEL_REQUEST);
+
+        // Parked by ATC until a refuel truck is handed over
+        submit(request);
+        return request.truck;
+    }
+
+    public void releaseRefuel(Plane plane, int truck) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.REFUEL_RELEASE);
+        request.truck = truck;
+        submit(request);
+    }
+
+    public void releaseGate(Plane plane, Gate gate) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.GATE_RELEASE);
+        request.assignedGate = gate;
+        submit(request);
+    }
+
+    public void recordDeparture(Plane plane, long waitTime) throws InterruptedException {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.DEPARTURE_RECORD);
+        request.waitTime = waitTime;
+        submit(request);
+    }
+
+    /*
+     * Non-blocking versions of the calls above. Each returns a future that
+     * ATC completes when the blocking call would have returned, so a plane
+     * can chain its next step instead of holding a thread while it waits.
+     * Futures are completed on an ATC controller thread: attach long-running
+     * continuations with an executor (thenRunAsync etc.).
+     */
+
+    public CompletableFuture<Gate> requestLandingAsync(Plane plane) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.LANDING_REQUEST);
+        return submitAsync(request).thenApply(response -> response.assignedGate);
+    }
+
+    public CompletableFuture<Void> releaseRunwayAsync(Plane plane) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.RUNWAY_RELEASE);
+        return submitAsync(request).thenApply(response -> null);
+    }
+
+    public CompletableFuture<Void> requestRunwayForTakeoffAsync(Plane plane) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.TAKEOFF_REQUEST);
+        return submitAsync(request).thenApply(response -> null);
+    }
+
+    public CompletableFuture<Integer> requestRefuelAsync(Plane plane) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.REFUEL_REQUEST);
+        return submitAsync(request).thenApply(response -> response.truck);
+    }
+
+    public CompletableFuture<Void> releaseRefuelAsync(Plane plane, int truck) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.REFUEL_RELEASE);
+        request.truck = truck;
+        return submitAsync(request).thenApply(response -> null);
+    }
+
+    public CompletableFuture<Void> releaseGateAsync(Plane plane, Gate gate) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.GATE_RELEASE);
+        request.assignedGate = gate;
+        return submitAsync(request).thenApply(response -> null);
+    }
+
+    public CompletableFuture<Void> recordDepartureAsync(Plane plane, long waitTime) {
+        ATCRequest request = plane.getAtcRequest();
+        request.reset(RequestType.DEPARTURE_RECORD);
+        request.waitTime = waitTime;
+        return submitAsync(request).thenApply(response -> null);
+    }
+
+    // Hands the request to its controller and parks until it is completed
+    private void submit(ATCRequest request) throws InterruptedException {
+        request.waiter = Thread.currentThread();
+        profiler.submitted(request);
+        controller(request.type).enqueue(request);
+        request.await();
+    }
+
+    private CompletableFuture<ATCRequest> submitAsync(ATCRequest request) {
+        CompletableFuture<ATCRequest> response = new CompletableFuture<>();
+        request.response = response;
+        profiler.submitted(request);
+        controller(request.type).enqueue(request);
+        return response;
+    }
+
+    public SimClock getClock() {
+        return clock;
+    }
+
+    public Statistics getStatistics() {
+        return stats;
+    }
+
+    /**
+     * Records how long one of the plane's phases took, in the statistics and
+     * the journal. Safe to call from any plane or crew thread.
+     */
+    public void recordPhase(Plane plane, FlightPhase phase, long duration) {
+        stats.recordPhase(phase, duration);
+        journal.phase(clock.now(), plane.getId(), phase, duration);
+    }
+
+    ContentionProfiler getProfiler() {
+        return profiler;
+    }
+
+    AtcMetrics getMetrics() {
+        return metrics;
+    }
+
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    public EventLog getLog() {
+        return log;
+    }
+
+    public AirportConfig getConfig() {
+        return config;
+    }
+
+    public void shutdown() {
+        if (running) {
+            running = false;
+            runwayControl.enqueue(new ATCRequest(RequestType.SHUTDOWN, null));
+            groundControl.enqueue(new ATCRequest(RequestType.SHUTDOWN, null));
+            refuelControl.enqueue(new ATCRequest(RequestType.SHUTDOWN, null));
+        }
+    }
+
+    public void printStatistics() {
+        System.out.println("\n========== SANITY CHECKS ==========");
+        boolean allGatesEmpty = true;
+        for (Gate gate : gates.getGates()) {
+            String status = gate.isOccupied() ? "OCCUPIED" : "EMPTY";
+            System.out.println("Gate " + gate.getId() + ": " + status);
+            if (gate.isOccupied()) {
+                allGatesEmpty = false;
+            }
+        }
+
+        System.out.println("All gates empty: " + (allGatesEmpty ? "PASS" : "FAIL"));
+
+        System.out.println("\n========== STATISTICS ==========");
+        stats.printStatistics();
+        profiler.printReport();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.airport;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resource setup of an airport that can vary between runs, shared by the
+ * threaded Airport and the EventSimulation. Phase lengths stay in Config.
+ */
+public final class AirportConfig {
+
+    /**
+     * The original airport: room for three planes on the ground, one runway
+     * with no separation, one refuel truck serving planes in arrival order,
+     * and the standard turnaround at every gate.
+     */
+    public static final AirportConfig DEFAULT = builder().build();
+
+    private final int groundCapacity;
+    private final int runways;
+    private final long arrivalSeparationMs;
+    private final long departureSeparationMs;
+    private final int refuelTrucks;
+    private final RefuelPolicy refuelPolicy;
+    private final Map<GateClass, TurnaroundGraph> turnarounds;
+
+    private AirportConfig(Builder builder) {
+        this.groundCapacity = builder.groundCapacity;
+        this.runways = builder.runways;
+        this.arrivalSeparationMs = builder.arrivalSeparationMs;
+        this.departureSeparationMs = builder.departureSeparationMs;
+        this.refuelTrucks = builder.refuelTrucks;
+        this.refuelPolicy = builder.refuelPolicy;
+        this.turnarounds = new EnumMap<>(builder.turnarounds);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Same settings, for deriving a variant.
+     */
+    public Builder toBuilder() {
+        Builder builder = builder()
+                .groundCapacity(groundCapacity)
+                .runways(runways)
+                .separation(arrivalSeparationMs, departureSeparationMs)
+                .refuelTrucks(refuelTrucks)
+                .refuelPolicy(refuelPolicy);
+        builder.turnarounds.putAll(turnarounds);
+        return builder;
+    }
+
+    /**
+     * Reads -Dairport.groundCapacity, -Dairport.runways, -Dairport.separation.arrivalMs,
+     * -Dairport.separation.departureMs, -Dairport.refuel.trucks,
+     * -Dairport.refuel.policy (fifo|sjf|emergency_first),
+     * -Dairport.turnaround (standard|overlapped, every gate) and
+     * -Dairport.turnaround.normal|wide_body|emergency (one gate class),
+     * falling back to DEFAULT.
+     */
+    public static AirportConfig fromSystemProperties() {
+        Builder builder = builder()
+                .groundCapacity(Integer.getInteger("airport.groundCapacity", DEFAULT.groundCapacity))
+                .runways(Integer.getInteger("airport.runways", DEFAULT.runways))
+                .separation(Long.getLong("airport.separation.arrivalMs", DEFAULT.arrivalSeparationMs),
+                        Long.getLong("airport.separation.departureMs", DEFAULT.departureSeparationMs))
+                .refuelTrucks(Integer.getInteger("airport.refuel.trucks", DEFAULT.refuelTrucks));
+        String policy = System.getProperty("airport.refuel.policy");
+        if (policy != null) {
+            builder.refuelPolicy(RefuelPolicy.parse(policy));
+        }
+        String turnaround = System.getProperty("airport.turnaround");
+        if (turnaround != null) {
+            builder.turnaround(TurnaroundGraph.parse(turnaround));
+        }
+        for (GateClass gateClass : GateClass.values()) {
+            String graph = System.getProperty("airport.turnaround." + gateClass.name().toLowerCase());
+            if (graph != null) {
+                builder.turnaround(gateClass, TurnaroundGraph.parse(graph));
+            }
+        }
+        return builder.build();
+    }
+
+    public int getGroundCapacity() {
+        return groundCapacity;
+    }
+
+    public int getRunways() {
+        return runways;
+    }
+
+    public long getArrivalSeparationMs() {
+        return arrivalSeparationMs;
+    }
+
+    public long getDepartureSeparationMs() {
+        return departureSeparationMs;
+    }
+
+    public int getRefuelTrucks() {
+        return refuelTrucks;
+    }
+
+    public RefuelPolicy getRefuelPolicy() {
+        return refuelPolicy;
+    }
+
+    /**
+     * Ground task graph for a plane parked at a gate of the given class.
+     */
+    public TurnaroundGraph getTurnaround(GateClass gateClass) {
+        return turnarounds.get(gateClass);
+    }
+
+    public static final class Builder {
+        private int groundCapacity = Config.GROUND_CAPACITY;
+        private int runways = 1;
+        private long arrivalSeparationMs;
+        private long departureSeparationMs;
+        private int refuelTrucks = 1;
+        private RefuelPolicy refuelPolicy = RefuelPolicy.FIFO;
+        private final Map<GateClass, TurnaroundGraph> turnarounds = new EnumMap<>(GateClass.class);
+
+        private Builder() {
+            turnaround(TurnaroundGraph.STANDARD);
+        }
+
+        /**
+         * Most planes allowed on the ground (runway, taxiways and gates) at once.
+         */
+        public Builder groundCapacity(int groundCapacity) {
+            if (groundCapacity < 1) {
+                throw new IllegalArgumentException("Ground capacity must be positive: " + groundCapacity);
+            }
+            this.groundCapacity = groundCapacity;
+            return this;
+        }
+
+        public Builder runways(int runways) {
+            if (runways < 1) {
+                throw new IllegalArgumentException("Need at least one runway: " + runways);
+            }
+            this.runways = runways;
+            return this;
+        }
+
+        /**
+         * Minimum gap between the end of one movement on a runway and the
+         * start of the next arrival or departure on it. Each must fit in an
+         * int, as the EventJournal header stores it.
+         */
+        public Builder separation(long arrivalSeparationMs, long departureSeparationMs) {
+            if (arrivalSeparationMs < 0 || departureSeparationMs < 0) {
+                throw new IllegalArgumentException("Separation must not be negative");
+            }
+            if (arrivalSeparationMs > Integer.MAX_VALUE || departureSeparationMs > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Separation must be at most " + Integer.MAX_VALUE + " ms");
+            }
+            this.arrivalSeparationMs = arrivalSeparationMs;
+            this.departureSeparationMs = departureSeparationMs;
+            return this;
+        }
+
+        public Builder refuelTrucks(int refuelTrucks) {
+            if (refuelTrucks < 1) {
+                throw new IllegalArgumentException("Need at least one refuel truck: " + refuelTrucks);
+            }
+            this.refuelTrucks = refuelTrucks;
+            return this;
+        }
+
+        public Builder refuelPolicy(RefuelPolicy refuelPolicy) {
+            this.refuelPolicy = refuelPolicy;
+            return this;
+        }
+
+        /**
+         * Turnaround graph for every gate class.
+         */
+        public Builder turnaround(TurnaroundGraph graph) {
+            for (GateClass gateClass : GateClass.values()) {
+                turnarounds.put(gateClass, graph);
+            }
+            return this;
+        }
+
+        /**
+         * Turnaround graph for planes at one class of gate, e.g. a faster
+         * overlapped turnaround for fuel emergencies at the emergency gate.
+         */
+        public Builder turnaround(GateClass gateClass, TurnaroundGraph graph) {
+            turnarounds.put(gateClass, graph);
+            return this;
+        }
+
+        public AirportConfig build() {
+            return new AirportConfig(this);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.airport;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A regional network of airports: planes depart one airport and, after a
+ * flight time, arrive at another.
+ *
+ * Each airport is a full Airport with its own ATC threads, so the airports
+ * share no state and no locks. Planes are AsyncPlane state machines stepped
+ * by a fixed set of single-threaded ground schedulers, one per CPU by
+ * default, each serving a shard of the airports; adding airports adds ATC
+ * threads that park when idle, not scheduler threads.
+ *
+ * A plane that has departed is handed to its destination as a flight
+ * through the destination's BoundedMailbox. The destination's ground
+ * scheduler drains the mailbox and lands each flight when its flight time
+ * is up. If a mailbox is full the flight waits at its origin and the
+ * hand-off is retried, so a congested airport pushes back on its
+ * neighbours instead of growing without bound.
+ *
+ * Every plane flies a fixed number of legs and then leaves the network;
+ * run() returns once all of them have.
+ */
+public class AirportNetwork {
+    private static final long HANDOFF_RETRY_MS = 1; // Backoff when a destination mailbox is full
+
+    // One leg of a plane's itinerary, on its way to an airport
+    private static final class Flight {
+        final int planeId;
+        final int passengers;
+        final boolean emergency;
+        final long refuelTime;
+        final int legsLeft; // Legs still to fly after this one
+        final long arrivalTime;
+
+        Flight(int planeId, int passengers, boolean emergency, long refuelTime, int legsLeft, long arrivalTime) {
+            this.planeId = planeId;
+            this.passengers = passengers;
+            this.emergency = emergency;
+            this.refuelTime = refuelTime;
+            this.legsLeft = legsLeft;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+
+    // One airport of the network and the threads that run it
+    private static final class Node {
+        final int index;
+        final Airport airport;
+        final Thread atc;
+        final ScheduledExecutorService ground; // Single thread: its planes, arrivals and the mailbox consumer;
+                                               // shared with the other airports of its shard
+        final BoundedMailbox<Flight> inbound;
+        final AtomicBoolean drainScheduled; // A drain of inbound is queued on ground
+        final SplittableRandom routes; // Destinations and flight times; ground thread only
+
+        Node(int index, Airport airport, ScheduledExecutorService ground, int mailboxCapacity, long seed) {
+            this.index = index;
+            this.airport = airport;
+            this.atc = new Thread(airport, "ATC-" + index);
+            this.ground = ground;
+            this.inbound = new BoundedMailbox<>(mailboxCapacity);
+            this.drainScheduled = new AtomicBoolean();
+            this.routes = new SplittableRandom(seed);
+        }
+    }
+
+    private final Node[] nodes;
+    private final ScheduledExecutorService[] grounds;
+    private final SimClock clock;
+    private final int planesPerAirport;
+    private final int legs;
+    private final long minFlightMs;
+    private final long maxFlightMs;
+    private final long seed;
+    private final CountDownLatch retired; // One count per plane, released after its last leg
+    private final AtomicLong handoffRetries;
+    private final AtomicLong failures;
+    private long elapsedMs;
+
+    private AirportNetwork(Builder builder) {
+        this.clock = builder.clock;
+        this.planesPerAirport = builder.planesPerAirport;
+        this.legs = builder.legs;
+        this.minFlightMs = builder.minFlightMs;
+        this.maxFlightMs = builder.maxFlightMs;
+        this.seed = builder.seed;
+        this.grounds = new ScheduledExecutorService[Math.min(builder.groundThreads, builder.airports)];
+        for (int i = 0; i < grounds.length; i++) {
+            String name = "Ground-" + (i + 1);
+            grounds[i] = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.nodes = new Node[builder.airports];
+        for (int i = 0; i < nodes.length; i++) {
+            // The last gate of each airport is reserved for emergencies
+            Airport airport = new Airport(new GateAllocator(builder.gates - 1, 0, 1), clock, EventLog.SILENT,
+                    builder.config);
+            nodes[i] = new Node(i, airport, grounds[i % grounds.length], builder.mailboxCapacity, seed + i);
+        }
+        this.retired = new CountDownLatch(nodes.length * planesPerAirport);
+        this.handoffRetries = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reads -Dairport.network.airports, -Dairport.network.gates (per airport),
+     * -Dairport.network.planes (starting at each airport), -Dairport.network.legs,
+     * -Dairport.network.flightMinMs, -Dairport.network.flightMaxMs,
+     * -Dairport.network.mailbox (hand-off mailbox capacity, a power of two),
+     * -Dairport.network.groundThreads (default one per CPU),
+     * -Dairport.network.clock (system|nosleep) and -Dairport.seed. Every
+     * airport uses AirportConfig.fromSystemProperties().
+     */
+    public static AirportNetwork fromSystemProperties() {
+        Builder builder = builder()
+                .airports(Integer.getInteger("airport.network.airports", 8))
+                .gates(Integer.getInteger("airport.network.gates", 3))
+                .planesPerAirport(Integer.getInteger("airport.network.planes", 20))
+                .legs(Integer.getInteger("airport.network.legs", 3))
+                .flightTime(Long.getLong("airport.network.flightMinMs", 2000),
+                        Long.getLong("airport.network.flightMaxMs", 5000))
+                .mailboxCapacity(Integer.getInteger("airport.network.mailbox", 1024))
+                .groundThreads(Integer.getInteger("airport.network.groundThreads",
+                        Runtime.getRuntime().availableProcessors()))
+                .seed(Long.getLong("airport.seed", 1))
+                .config(AirportConfig.fromSystemProperties());
+        String clock = System.getProperty("airport.network.clock", "system");
+        switch (clock) {
+            case "system":
+                builder.clock(SimClock.SYSTEM);
+                break;
+            case "nosleep":
+                builder.clock(SimClock.NO_SLEEP);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown airport.network.clock: " + clock);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts every airport, lands each airport's initial traffic and waits
+     * until every plane has flown all its legs.
+     */
+    public void run() throws InterruptedException {
+        long started = System.nanoTime();
+        for (Node node : nodes) {
+            node.atc.start();
+        }
+        long start = clock.now();
+        for (Node node : nodes) {
+            TrafficGenerator traffic = TrafficGenerator.builder()
+                    .planes(planesPerAirport)
+                    .seed(seed + node.index)
+                    .build();
+            while (traffic.hasNext()) {
+                Arrival arrival = traffic.next();
+                // Plane ids are unique across the network
+                Flight flight = new Flight(node.index * planesPerAirport + arrival.getPlaneId(),
+                        arrival.getPassengers(), arrival.isEmergency(), arrival.getRefuelTime(), legs - 1,
+                        start + arrival.getTime());
+                node.ground.schedule(() -> land(node, flight), clock.timerDelay(arrival.getTime()),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        retired.await();
+
+        for (Node node : nodes) {
+            node.airport.shutdown();
+        }
+        for (Node node : nodes) {
+            node.atc.join();
+        }
+        for (ScheduledExecutorService ground : grounds) {
+            ground.shutdown();
+        }
+        elapsedMs = (System.nanoTime() - started) / 1_000_000;
+    }
+
+    // Runs on the airport's ground thread when the flight's time is up
+    private void land(Node node, Flight flight) {
+        Plane plane = new Plane(flight.planeId, flight.passengers, flight.emergency, flight.refuelTime,
+                node.airport, ExecutionMode.ASYNC);
+        new AsyncPlane(plane, node.airport, node.ground).start()
+                .whenCompleteAsync((ignored, failure) -> {
+                    if (failure != null) {
+                        failures.incrementAndGet();
+                        retired.countDown();
+                    } else {
+                        departed(node, flight);
+                    }
+                }, node.ground);
+    }
+
+    // Runs on the origin's ground thread once ATC has recorded the departure
+    private void departed(Node origin, Flight flight) {
+        if (flight.legsLeft == 0) {
+            retired.countDown();
+            return;
+        }
+        Node destination = origin;
+        if (nodes.length > 1) {
+            int index = origin.routes.nextInt(nodes.length - 1);
+            destination = nodes[index >= origin.index ? index + 1 : index];
+        }
+        long flightTime = minFlightMs + origin.routes.nextLong(maxFlightMs - minFlightMs + 1);
+        // A fuel emergency ends with the leg it was declared on
+        handOff(origin, destination, new Flight(flight.planeId, flight.passengers, false, flight.refuelTime,
+                flight.legsLeft - 1, clock.now() + flightTime));
+    }
+
+    private void handOff(Node origin, Node destination, Flight flight) {
+        if (!destination.inbound.offer(flight)) {
+            handoffRetries.incrementAndGet();
+            origin.ground.schedule(() -> handOff(origin, destination, flight), HANDOFF_RETRY_MS,
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+        // One queued drain serves every flight offered before it runs
+        if (destination.drainScheduled.compareAndSet(false, true)) {
+            destination.ground.execute(() -> drain(destination));
+        }
+    }
+
+    // Runs on the destination's ground thread, the mailbox's only consumer
+    private void drain(Node node) {
+        // Cleared first: a flight offered from now on queues another drain
+        node.drainScheduled.set(false);
+        Flight flight;
+        while ((flight = node.inbound.poll()) != null) {
+            Flight arriving = flight;
+            long delay = clock.timerDelay(arriving.arrivalTime - clock.now());
+            if (delay <= 0) {
+                land(node, arriving);
+            } else {
+                node.ground.schedule(() -> land(node, arriving), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public int getAirports() {
+        return nodes.length;
+    }
+
+    public Statistics getStatistics(int airport) {
+        return nodes[airport].airport.getStatistics();
+    }
+
+    /**
+     * Legs flown across the network: departures recorded by every ATC.
+     */
+    public long getLegsFlown() {
+        long total = 0;
+        for (Node node : nodes) {
+            total += node.airport.getStatistics().getPlanesServed();
+        }
+        return total;
+    }
+
+    public long getHandoffRetries() {
+        return handoffRetries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Network totals and pooled wait times, then one row per airport for
+     * small networks.
+     */
+    public void printReport(PrintStream out) {
+        LatencyHistogram.Snapshot waits = nodes[0].airport.getStatistics().waitTimeSnapshot();
+        for (int i = 1; i < nodes.length; i++) {
+            waits = waits.merge(nodes[i].airport.getStatistics().waitTimeSnapshot());
+        }
+        long legsFlown = getLegsFlown();
+        out.println("Airports: " + nodes.length + ", planes: " + nodes.length * planesPerAirport +
+                ", legs flown: " + legsFlown + " in " + elapsedMs + " ms (" +
+                String.format("%.0f", elapsedMs == 0 ? 0.0 : legsFlown * 1000.0 / elapsedMs) + " legs/s)");
+        out.println("Hand-off retries (destination mailbox full): " + handoffRetries.get());
+        out.println("Failed planes: " + failures.get());
+        out.println(String.format("Wait time for landing (ms): mean %.1f, p50 %d, p90 %d, p99 %d, max %d",
+                waits.getMean(), waits.percentile(50), waits.percentile(90), waits.percentile(99), waits.getMax()));
+        if (nodes.length > 16) {
+            return;
+        }
+        out.println(String.format("%7s %6s %10s %7s %7s %11s", "Airport", "Legs", "Wait mean", "p99", "Max",
+                "Movements/h"));
+        for (Node node : nodes) {
+            Statistics stats = node.airport.getStatistics();
+            LatencyHistogram.Snapshot airportWaits = stats.waitTimeSnapshot();
+            out.println(String.format("%7d %6d %10.1f %7d %7d %11.1f", node.index, stats.getPlanesServed(),
+                    airportWaits.getMean(), airportWaits.percentile(99), airportWaits.getMax(),
+                    stats.movementsPerHour()));
+        }
+    }
+
+    /**
+     * Runs the network configured by system properties (see
+     * fromSystemProperties()) and prints its report.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        AirportNetwork network = fromSystemProperties();
+        System.out.println(Utils.threadInfo() + "Starting network of " + network.getAirports() +
+                " airports, " + Runtime.getRuntime().availableProcessors() + " CPUs");
+        network.run();
+        System.out.println("\n========== NETWORK ==========");
+        network.printReport(System.out);
+    }
+
+    public static final class Builder {
+        private int airports = 8;
+        private int gates = 3;
+        private int planesPerAirport = 20;
+        private int legs = 3;
+        private long minFlightMs = 2000;
+        private long maxFlightMs = 5000;
+        private int mailboxCapacity = 1024;
+        private int groundThreads = Runtime.getRuntime().availableProcessors();
+        private long seed = 1;
+        private SimClock clock = SimClock.SYSTEM;
+        private AirportConfig config = AirportConfig.DEFAULT;
+
+        private Builder() {
+        }
+
+        public Builder airports(int airports) {
+            if (airports < 1) {
+                throw new IllegalArgumentException("Need at least one airport: " + airports);
+            }
+            this.airports = airports;
+            return this;
+        }
+
+        /**
+         * Gates per airport; the last is reserved for emergencies.
+         */
+        public Builder gates(int gates) {
+            if (gates < 2) {
+                throw new IllegalArgumentException("Need at least two gates (one is for emergencies): " + gates);
+            }
+            this.gates = gates;
+            return this;
+        }
+
+        /**
+         * Planes that start the run by arriving at each airport.
+         */
+        public Builder planesPerAirport(int planesPerAirport) {
+            if (planesPerAirport < 0) {
+                throw new IllegalArgumentException("Invalid plane count: " + planesPerAirport);
+            }
+            this.planesPerAirport = planesPerAirport;
+            return this;
+        }
+
+        /**
+         * Landings each plane makes before it leaves the network, counting
+         * its first arrival.
+         */
+        public Builder legs(int legs) {
+            if (legs < 1) {
+                throw new IllegalArgumentException("Need at least one leg: " + legs);
+            }
+            this.legs = legs;
+            return this;
+        }
+
+        public Builder flightTime(long minFlightMs, long maxFlightMs) {
+            if (minFlightMs < 0 || maxFlightMs < minFlightMs) {
+                throw new IllegalArgumentException("Invalid flight time range: " + minFlightMs + "-" + maxFlightMs);
+            }
+            this.minFlightMs = minFlightMs;
+            this.maxFlightMs = maxFlightMs;
+            return this;
+        }
+
+        /**
+         * Flights that can be on their way into one airport's mailbox before
+         * origins have to hold them; a power of two.
+         */
+        public Builder mailboxCapacity(int mailboxCapacity) {
+            this.mailboxCapacity = mailboxCapacity;
+            return this;
+        }
+
+        /**
+         * Scheduler threads stepping the planes; airports are spread over
+         * them round-robin.
+         */
+        public Builder groundThreads(int groundThreads) {
+            if (groundThreads < 1) {
+                throw new IllegalArgumentException("Need at least one ground thread: " + groundThreads);
+            }
+            this.groundThreads = groundThreads;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder clock(SimClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Resource setup shared by every airport.
+         */
+        public Builder config(AirportConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        public AirportNetwork build() {
+            return new AirportNetwork(this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.airport;
+
+/**
+ * One plane arriving in the airport's airspace, as produced by a
+ * TrafficGenerator. Time is in milliseconds from the start of the run.
+ */
+public final class Arrival {
+    private final int planeId;
+    private final long time;
+    private final int passengers;
+    private final boolean emergency;
+    private final long refuelTime; // Truck time needed for this plane's fuel demand
+
+    public Arrival(int planeId, long time, int passengers, boolean emergency) {
+        this(planeId, time, passengers, emergency, Config.REFUEL_MS);
+    }
+
+    public Arrival(int planeId, long time, int passengers, boolean emergency, long refuelTime) {
+        this.planeId = planeId;
+        this.time = time;
+        this.passengers = passengers;
+        this.emergency = emergency;
+        this.refuelTime = refuelTime;
+    }
+
+    public int getPlaneId() {
+        return planeId;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public int getPassengers() {
+        return passengers;
+    }
+
+    public boolean isEmergency() {
+        return emergency;
+    }
+
+    public long getRefuelTime() {
+        return refuelTime;
+    }
+}
@@ -0,0 +1,57 @@
+package com.airport;
+
+import java.util.Random;
+
+/**
+ * Spacing between consecutive arrivals.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Milliseconds from the previous arrival to the next one.
+     */
+    long nextGap(Random random);
+
+    /**
+     * Evenly random gap between min and max (inclusive), e.g. the original
+     * 1-2 s spacing.
+     */
+    static ArrivalProcess uniform(long minGapMs, long maxGapMs) {
+        if (minGapMs < 0 || maxGapMs < minGapMs) {
+            throw new IllegalArgumentException("Invalid gap range: " + minGapMs + "-" + maxGapMs);
+        }
+        return random -> minGapMs + (long) (random.nextDouble() * (maxGapMs - minGapMs + 1));
+    }
+
+    /**
+     * Poisson arrivals: exponentially distributed gaps at the given mean rate.
+     */
+    static ArrivalProcess poisson(double arrivalsPerHour) {
+        if (arrivalsPerHour <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + arrivalsPerHour);
+        }
+        double meanGapMs = 3_600_000.0 / arrivalsPerHour;
+        return random -> exponential(random, meanGapMs);
+    }
+
+    /**
+     * Bursty arrivals: planes come in bunches (geometric size with the given
+     * mean) spaced by a short gap, with exponential quiet periods between
+     * bunches, sized so the long-run rate is still arrivalsPerHour.
+     */
+    static ArrivalProcess bursty(double arrivalsPerHour, double meanBurstSize, long inBurstGapMs) {
+        if (arrivalsPerHour <= 0 || meanBurstSize < 1 || inBurstGapMs < 0) {
+            throw new IllegalArgumentException("Invalid burst parameters");
+        }
+        double meanCycleMs = meanBurstSize * 3_600_000.0 / arrivalsPerHour;
+        double meanQuietMs = Math.max(0, meanCycleMs - (meanBurstSize - 1) * inBurstGapMs);
+        double continueBurst = 1 - 1 / meanBurstSize;
+        return random -> random.nextDouble() < continueBurst
+                ? inBurstGapMs
+                : exponential(random, meanQuietMs);
+    }
+
+    private static long exponential(Random random, double mean) {
+        return Math.round(-mean * Math.log(1 - random.nextDouble()));
+    }
+}
@@ -0,0 +1,253 @@
+package com.airport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The plane lifecycle from Plane.run() written as a state machine.
+ *
+ * Instead of a thread that sleeps through each phase and blocks on ATC, each
+ * state's entry action either schedules a timer for the phase length or
+ * calls the Airport async API, and the next state is entered when that
+ * completes. Between steps the plane holds no thread, so a scheduler with a
+ * handful of threads can carry any number of aircraft. Log lines, phase
+ * timings and ATC interaction match the threaded Plane.
+ */
+public class AsyncPlane {
+
+    enum State {
+        HOLDING,
+        LANDING,
+        LANDED,
+        TAXI_TO_GATE,
+        DOCKING,
+        GROUND_SERVICE, // The turnaround graph's crew tasks
+        UNDOCKING,
+        TAXI_TO_RUNWAY,
+        TAKEOFF_WAIT,
+        TAKEOFF,
+        DEPARTED
+    }
+
+    private static final int NO_ARGUMENT = Integer.MIN_VALUE; // For crewLog() messages without a {}
+
+    private final Plane plane; // Identity and ATC channel
+    private final Airport airport;
+    private final ScheduledExecutorService scheduler;
+    private final SimClock clock;
+    private final EventLog log;
+    private final String name;
+    private final CompletableFuture<Void> finished;
+
+    // Only touched by the step currently running; steps are ordered by the
+    // futures that trigger them
+    private State state;
+    private Gate assignedGate;
+    private TurnaroundGraph.Timeline timeline;
+    private long docked;
+    private long waitTime;
+    private long landingTime;
+    private long phaseStart; // When the current FlightPhase began
+
+    public AsyncPlane(Plane plane, Airport airport, ScheduledExecutorService scheduler) {
+        this.plane = plane;
+        this.airport = airport;
+        this.scheduler = scheduler;
+        this.clock = airport.getClock();
+        this.log = airport.getLog();
+        this.name = "PLANE-" + plane.getId();
+        this.finished = new CompletableFuture<>();
+    }
+
+    /**
+     * Starts the lifecycle; the returned future completes once the plane has
+     * departed and been recorded, or exceptionally if a step failed.
+     */
+    public CompletableFuture<Void> start() {
+        scheduler.execute(ExecutionMode.named(name, () -> enter(State.HOLDING)));
+        return finished;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    private void enter(State next) {
+        state = next;
+        int passengers = plane.getPassengers();
+        switch (next) {
+            case HOLDING:
+                if (plane.isEmergency()) {
+                    log.info("[EMERGENCY - FUEL SHORTAGE] approaching with {} passengers", passengers);
+                    log.info("[EMERGENCY - FUEL SHORTAGE] Requesting permission to land");
+                } else {
+                    log.info("Approaching with {} passengers", passengers);
+                    log.info("Requesting permission to land");
+                }
+                then(airport.requestLandingAsync(plane).thenAccept(gate -> assignedGate = gate), State.LANDING);
+                break;
+            case LANDING:
+                landingTime = clock.now();
+                waitTime = landingTime - plane.getArrivalTime();
+                phaseStart = plane.getArrivalTime();
+                endPhase(FlightPhase.HOLDING);
+                log.info("Received clearance! Landing on runway (waited {}ms)", waitTime);
+                then(delay(Config.LANDING_MS), State.LANDED);
+                break;
+            case LANDED:
+                endPhase(FlightPhase.LANDING);
+                log.info("Landed successfully");
+                // Vacate the runway onto the taxiway
+                then(airport.releaseRunwayAsync(plane), State.TAXI_TO_GATE);
+                break;
+            case TAXI_TO_GATE:
+                log.info("Taxiing to Gate {}", assignedGate.getId());
+                then(delay(Config.TAXI_TO_GATE_MS), State.DOCKING);
+                break;
+            case DOCKING:
+                endPhase(FlightPhase.TAXI_TO_GATE);
+                log.info("Docking at Gate {}", assignedGate.getId());
+                then(delay(Config.DOCKING_MS), State.GROUND_SERVICE);
+                break;
+            case GROUND_SERVICE:
+                endPhase(FlightPhase.DOCKING);
+                log.info("Docked at Gate {}", assignedGate.getId());
+                // Each crew task starts once the tasks it depends on are done
+                timeline = new TurnaroundGraph.Timeline();
+                docked = phaseStart;
+                then(airport.getConfig().getTurnaround(assignedGate.getGateClass()).run(this::groundTask),
+                        State.UNDOCKING);
+                break;
+            case UNDOCKING:
+                timeline.forEachPhase(docked, (phase, duration) -> airport.recordPhase(plane, phase, duration));
+                phaseStart = clock.now();
+                log.info("Undocking from Gate {}", assignedGate.getId());
+                then(delay(Config.UNDOCKING_MS)
+                        .thenCompose(done -> airport.releaseGateAsync(plane, assignedGate)), State.TAXI_TO_RUNWAY);
+                break;
+            case TAXI_TO_RUNWAY:
+                endPhase(FlightPhase.UNDOCKING);
+                // Taxi to the holding point, then wait for a takeoff slot
+                log.info("Taxiing to runway");
+                then(delay(Config.TAXI_TO_RUNWAY_MS), State.TAKEOFF_WAIT);
+                break;
+            case TAKEOFF_WAIT:
+                endPhase(FlightPhase.TAXI_TO_RUNWAY);
+                log.info("Requesting runway for takeoff");
+                then(airport.requestRunwayForTakeoffAsync(plane), State.TAKEOFF);
+                break;
+            case TAKEOFF:
+                endPhase(FlightPhase.TAKEOFF_WAIT);
+                log.info("Taking off...");
+                then(delay(Config.TAKEOFF_MS), State.DEPARTED);
+                break;
+            case DEPARTED:
+                endPhase(FlightPhase.TAKEOFF);
+                airport.recordPhase(plane, FlightPhase.TURNAROUND, phaseStart - landingTime);
+                log.info("Departed successfully with {} passengers", passengers);
+                airport.releaseRunwayAsync(plane)
+                        .thenCompose(done -> airport.recordDepartureAsync(plane, waitTime))
+                        .whenComplete((done, failure) -> {
+                            if (failure != null) {
+                                fail(failure);
+                            } else {
+                                finished.complete(null);
+                            }
+                        });
+                break;
+        }
+    }
+
+    // Enters the next state on the scheduler once the trigger completes
+    private void then(CompletableFuture<?> trigger, State next) {
+        trigger.whenCompleteAsync((result, failure) -> {
+            if (failure != null) {
+                fail(failure);
+                return;
+            }
+            ExecutionMode.named(name, () -> {
+                try {
+                    enter(next);
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }).run();
+        }, scheduler);
+    }
+
+    // Completes after the given simulated duration without holding a thread
+    private CompletableFuture<Void> delay(long millis) {
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        scheduler.schedule(() -> timer.complete(null), clock.timerDelay(millis), TimeUnit.MILLISECONDS);
+        return timer;
+    }
+
+    // Starts one turnaround task on the scheduler rather than on whichever
+    // thread finished the task before it, which may be ATC
+    private CompletableFuture<Void> groundTask(TurnaroundGraph.Task task) {
+        return CompletableFuture.supplyAsync(() -> {
+            timeline.started(task, clock.now());
+            return crewTask(task);
+        }, scheduler).thenCompose(finished -> finished)
+                .thenRun(() -> timeline.finished(task, clock.now()));
+    }
+
+    private CompletableFuture<Void> crewTask(TurnaroundGraph.Task task) {
+        String crewName = task.getCrew() + "-P" + plane.getId();
+        int passengers = plane.getPassengers();
+        switch (task) {
+            case DISEMBARK:
+                return crew(crewName, "Passengers disembarking ({} people)", passengers,
+                        "All passengers disembarked", Config.DISEMBARK_MS);
+            case CLEANING:
+                return crew(crewName, "Cleaning and resupplying", NO_ARGUMENT, "Cleaning complete",
+                        Config.CLEANING_MS);
+            case REFUEL:
+                crewLog(crewName, "Requesting refuel truck", NO_ARGUMENT);
+                return airport.requestRefuelAsync(plane).thenCompose(truck -> {
+                    timeline.truckAssigned(clock.now());
+                    return crew(crewName, "Refueling from truck {}...", truck, "Refueling complete",
+                            plane.getRefuelTime())
+                            .thenCompose(done -> airport.releaseRefuelAsync(plane, truck));
+                });
+            default:
+                return crew(crewName, "Boarding passengers ({} people)", passengers,
+                        "All passengers boarded", Config.BOARDING_MS);
+        }
+    }
+
+    // A ground crew task: logs under the crew's name at start and end
+    private CompletableFuture<Void> crew(String crewName, String startTemplate, int argument, String endMessage,
+            long millis) {
+        crewLog(crewName, startTemplate, argument);
+        return delay(millis).thenRunAsync(() -> crewLog(crewName, endMessage, NO_ARGUMENT), scheduler);
+    }
+
+    // Logs as the crew thread would, lazily formatted; nothing is renamed or
+    // boxed unless INFO is on
+    private void crewLog(String crewName, String template, int argument) {
+        if (!log.isEnabled(EventLog.Level.INFO)) {
+            return;
+        }
+        ExecutionMode.named(crewName, () -> {
+            if (argument == NO_ARGUMENT) {
+                log.info(template);
+            } else {
+                log.info(template, argument);
+            }
+        }).run();
+    }
+
+    private void fail(Throwable failure) {
+        log.error("Plane {} failed in state {}: {}", plane.getId(), state, failure);
+        finished.completeExceptionally(failure);
+    }
+
+    // Records how long the phase that just finished took
+    private void endPhase(FlightPhase phase) {
+        long now = clock.now();
+        airport.recordPhase(plane, phase, now - phaseStart);
+        phaseStart = now;
+    }
+}
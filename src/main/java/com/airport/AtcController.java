@@ -0,0 +1,222 @@
+package com.airport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One independently scheduled part of an Airport's ATC, with its own
+ * request channel and its own thread.
+ *
+ * Each controller owns a disjoint set of resources (see Kind) and is the
+ * only thread that touches them, so controllers take no locks and never
+ * wait for each other. Requests reach a controller through a lock-free
+ * mailbox; the controller drains it in one swap, applies releases before
+ * new requests and then grants whatever its resources allow, as the single
+ * ATC thread did before the split.
+ */
+abstract class AtcController implements Runnable {
+
+    enum Kind {
+        RUNWAY,  // Runway slots and separation, takeoffs, arrivals cleared by GROUND
+        GROUND,  // Landing queue, gates and ground capacity, departures
+        REFUEL   // Refuel trucks
+    }
+
+    final Kind kind;
+    private final AtomicReference<Airport.ATCRequest> mailbox; // Newest first, linked through ATCRequest.next
+    private volatile Thread thread; // Unparked when a request lands in an empty mailbox
+    private final List<Airport.ATCRequest> batch; // Reused for each drain
+    private final List<Airport.ATCRequest> pending; // Non-release requests of the current batch
+    private final AtcMetrics metrics;
+    private final ContentionProfiler profiler;
+    private final SimClock clock;
+    protected long batchNumber; // Batches processed, to tell grants on arrival from deferred ones
+    protected long wakeAt = Long.MAX_VALUE; // Time a parked request waits for, if any
+    protected long batchNanos; // Wall clock at the start of the current decision pass
+
+    AtcController(Kind kind, AtcMetrics metrics, ContentionProfiler profiler, SimClock clock) {
+        this.kind = kind;
+        this.metrics = metrics;
+        this.profiler = profiler;
+        this.clock = clock;
+        this.mailbox = new AtomicReference<>();
+        this.batch = new ArrayList<>();
+        this.pending = new ArrayList<>();
+    }
+
+    /**
+     * Updates resource state or parks the request; grants happen in dispatch().
+     */
+    abstract void apply(Airport.ATCRequest request);
+
+    /**
+     * Grants parked requests that the current resource state allows.
+     */
+    abstract void dispatch();
+
+    /**
+     * Republishes this controller's gauges for MetricsServer.
+     */
+    abstract void publishMetrics();
+
+    @Override
+    public void run() {
+        // Park until a request arrives, then take the whole mailbox in one
+        // swap and decide on the batch at once. When a request is waiting for
+        // a planned time (a runway slot), park only until then. The SHUTDOWN
+        // sentinel is FIFO-ordered behind every request submitted before it.
+        thread = Thread.currentThread();
+        boolean shuttingDown = false;
+        while (!shuttingDown) {
+            Airport.ATCRequest head = mailbox.getAndSet(null);
+            if (head == null) {
+                if (wakeAt == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    long delay = wakeAt - clock.now();
+                    if (delay <= 0) {
+                        batchNanos = System.nanoTime();
+                        dispatch();
+                        publishMetrics();
+                        continue;
+                    }
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(delay));
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                continue;
+            }
+            shuttingDown = unlink(head);
+            processBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // Moves the newest-first chain into batch in arrival order, stopping at
+    // SHUTDOWN; returns whether SHUTDOWN was seen
+    private boolean unlink(Airport.ATCRequest head) {
+        while (head != null) {
+            Airport.ATCRequest next = head.next;
+            head.next = null;
+            batch.add(head);
+            head = next;
+        }
+        Collections.reverse(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).type == Airport.RequestType.SHUTDOWN) {
+                batch.subList(i, batch.size()).clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Processes whatever is in the mailbox on the calling thread, for use
+     * while no controller thread is running (benchmarks). Returns whether
+     * there was anything to do.
+     */
+    boolean drainInline() {
+        Airport.ATCRequest head = mailbox.getAndSet(null);
+        if (head == null) {
+            return false;
+        }
+        unlink(head);
+        processBatch(batch);
+        batch.clear();
+        return true;
+    }
+
+    /**
+     * Handles a drained batch: releases first, so everything freed in the
+     * batch is available, then every new request is parked, and only then
+     * does one dispatch pass grant resources. Each plane has at most one
+     * request outstanding, so reordering within a batch never reorders one
+     * plane's requests.
+     */
+    void processBatch(List<Airport.ATCRequest> requests) {
+        batchNumber++;
+        metrics.batchSize(kind, requests.size());
+        // One clock read per batch: it dates every answer given in it
+        batchNanos = System.nanoTime();
+        if (!requests.isEmpty()) {
+            profiler.drained(kind, requests.get(0), batchNanos);
+        }
+        // Split before applying anything: a completed release's channel may
+        // be reset and resubmitted by its plane while the batch is running
+        for (int i = 0; i < requests.size(); i++) {
+            Airport.ATCRequest request = requests.get(i);
+            if (request.type.release) {
+                count(request);
+                apply(request);
+            } else {
+                request.arrivedInBatch = batchNumber;
+                pending.add(request);
+            }
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            count(pending.get(i));
+            apply(pending.get(i));
+        }
+        dispatch();
+        // Anything not granted in this pass was queued; the stamp is only
+        // written by this controller, so it is safe to read even if the
+        // plane has already reused the channel
+        for (int i = 0; i < pending.size(); i++) {
+            Airport.ATCRequest request = pending.get(i);
+            if (!request.forwarded && request.grantedInBatch[kind.ordinal()] != batchNumber) {
+                metrics.denied(request.type);
+            }
+        }
+        pending.clear();
+        publishMetrics();
+    }
+
+    // A request handed on by another controller was counted where it arrived
+    private void count(Airport.ATCRequest request) {
+        if (request.type == Airport.RequestType.SHUTDOWN || request.forwarded) {
+            return;
+        }
+        metrics.request(request.type);
+        if (request.type.release) {
+            metrics.granted(request.type);
+        }
+    }
+
+    /**
+     * Completes a parked request with the resource it asked for.
+     */
+    void grant(Airport.ATCRequest request) {
+        request.granted = true;
+        request.grantedInBatch[kind.ordinal()] = batchNumber;
+        request.rounds += (int) (batchNumber - request.arrivedInBatch);
+        metrics.granted(request.type);
+        respond(request);
+    }
+
+    /**
+     * Answers a request this controller has decided.
+     */
+    void respond(Airport.ATCRequest request) {
+        profiler.completed(request, batchNanos);
+        request.complete();
+    }
+
+    // Lock-free push; only a push into an empty mailbox needs to wake the
+    // controller, since a non-empty one has not been drained yet
+    void enqueue(Airport.ATCRequest request) {
+        Airport.ATCRequest head;
+        do {
+            head = mailbox.get();
+            request.next = head;
+        } while (!mailbox.compareAndSet(head, request));
+        if (head == null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.airport;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live counters and gauges of one Airport's ATC, for scraping while a run
+ * is in progress (see MetricsServer).
+ *
+ * Every slot has a single writer, the ATC controller that owns the value
+ * (a request type's counters are split between the controller that receives
+ * it and the one that grants it, but no slot is shared): counters are bumped
+ * with a plain read and a release store, which a single writer can do
+ * without a CAS, and gauges are republished after every batch. Readers use
+ * acquire loads, so a scrape never takes a lock and never makes ATC wait.
+ * Values in one scrape may come from neighbouring batches.
+ */
+final class AtcMetrics {
+    private static final Airport.RequestType[] TYPES = Airport.RequestType.values();
+    private static final int REQUESTS = 0;
+    private static final int GRANTED = 1;
+    private static final int DENIED = 2;
+
+    enum Gauge {
+        LANDING_QUEUE,
+        EMERGENCY_QUEUE,
+        TAKEOFF_QUEUE,
+        REFUEL_QUEUE,
+        CLEARED_ARRIVALS, // Gate reserved, waiting for a runway slot
+        GROUND_PERMITS,
+        FREE_TRUCKS
+    }
+
+    private final AtomicLongArray counters; // [type * 3 + REQUESTS|GRANTED|DENIED]
+    private final AtomicLongArray holds; // Indexed by Airport.HoldReason ordinal
+    private final AtomicLongArray gauges; // Indexed by Gauge ordinal
+    private final AtomicLongArray batchSizes; // Last mailbox drain, by AtcController.Kind ordinal
+    private final AtomicLongArray runwayOccupants; // Plane id per runway, or RunwaySequencer.NO_PLANE
+    private final AtomicLongArray gatesOccupied; // 1 if occupied, by gate id - 1
+
+    AtcMetrics(int runways, int gates) {
+        this.counters = new AtomicLongArray(TYPES.length * 3);
+        this.holds = new AtomicLongArray(Airport.HoldReason.values().length);
+        this.gauges = new AtomicLongArray(Gauge.values().length);
+        this.batchSizes = new AtomicLongArray(AtcController.Kind.values().length);
+        this.runwayOccupants = new AtomicLongArray(runways);
+        for (int i = 0; i < runways; i++) {
+            runwayOccupants.setRelease(i, RunwaySequencer.NO_PLANE);
+        }
+        this.gatesOccupied = new AtomicLongArray(gates);
+    }
+
+    // Writers: the owning ATC controller only
+
+    void request(Airport.RequestType type) {
+        increment(counters, type.ordinal() * 3 + REQUESTS);
+    }
+
+    void granted(Airport.RequestType type) {
+        increment(counters, type.ordinal() * 3 + GRANTED);
+    }
+
+    void denied(Airport.RequestType type) {
+        increment(counters, type.ordinal() * 3 + DENIED);
+    }
+
+    void hold(Airport.HoldReason reason) {
+        increment(holds, reason.ordinal());
+    }
+
+    void gauge(Gauge gauge, long value) {
+        gauges.setRelease(gauge.ordinal(), value);
+    }
+
+    void batchSize(AtcController.Kind controller, long size) {
+        batchSizes.setRelease(controller.ordinal(), size);
+    }
+
+    void runwayOccupant(int runway, int planeId) {
+        runwayOccupants.setRelease(runway - 1, planeId);
+    }
+
+    void gateOccupied(int gateId, boolean occupied) {
+        gatesOccupied.setRelease(gateId - 1, occupied ? 1 : 0);
+    }
+
+    private static void increment(AtomicLongArray array, int index) {
+        array.setRelease(index, array.getPlain(index) + 1);
+    }
+
+    // Readers: any thread
+
+    long getRequests(Airport.RequestType type) {
+        return counters.getAcquire(type.ordinal() * 3 + REQUESTS);
+    }
+
+    /**
+     * Requests handed the resource they asked for (releases always are).
+     */
+    long getGranted(Airport.RequestType type) {
+        return counters.getAcquire(type.ordinal() * 3 + GRANTED);
+    }
+
+    /**
+     * Requests that could not be granted in the batch they arrived in and
+     * were queued instead.
+     */
+    long getDenied(Airport.RequestType type) {
+        return counters.getAcquire(type.ordinal() * 3 + DENIED);
+    }
+
+    long getTotalRequests() {
+        long total = 0;
+        for (Airport.RequestType type : TYPES) {
+            total += getRequests(type);
+        }
+        return total;
+    }
+
+    long getHolds(Airport.HoldReason reason) {
+        return holds.getAcquire(reason.ordinal());
+    }
+
+    long getGauge(Gauge gauge) {
+        return gauges.getAcquire(gauge.ordinal());
+    }
+
+    /**
+     * Requests in the controller's last mailbox drain.
+     */
+    long getBatchSize(AtcController.Kind controller) {
+        return batchSizes.getAcquire(controller.ordinal());
+    }
+
+    int getRunways() {
+        return runwayOccupants.length();
+    }
+
+    int getRunwayOccupant(int runway) {
+        return (int) runwayOccupants.getAcquire(runway - 1);
+    }
+
+    int getGates() {
+        return gatesOccupied.length();
+    }
+
+    boolean isGateOccupied(int gateId) {
+        return gatesOccupied.getAcquire(gateId - 1) != 0;
+    }
+}
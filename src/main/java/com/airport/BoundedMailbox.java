@@ -0,0 +1,79 @@
+package com.airport;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer, used to hand
+ * flights from one airport to another in an AirportNetwork.
+ *
+ * A ring of slots, each with a sequence number saying whose turn it is:
+ * a producer claims a slot by CAS on the tail, writes the element and
+ * publishes it with a release store of the sequence; the consumer reads
+ * the slot once the sequence says it is filled. offer() never blocks or
+ * waits for another producer: it fails when the ring is full, and the
+ * caller decides how to back off.
+ */
+final class BoundedMailbox<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences; // Slot i is free for ticket t when equal to t, filled when t + 1
+    private final AtomicLong tail; // Next ticket for producers
+    private long head; // Next ticket to consume; consumer only
+
+    BoundedMailbox(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.setPlain(i, i);
+        }
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Adds the element, or returns false if the mailbox is full. Any thread.
+     */
+    boolean offer(E element) {
+        while (true) {
+            long ticket = tail.get();
+            int slot = (int) ticket & mask;
+            long sequence = sequences.getAcquire(slot);
+            if (sequence == ticket) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    elements.setPlain(slot, element);
+                    sequences.setRelease(slot, ticket + 1);
+                    return true;
+                }
+            } else if (sequence < ticket) {
+                // The consumer has not freed this slot from the previous lap
+                return false;
+            }
+            // Another producer took the ticket; try the next one
+        }
+    }
+
+    /**
+     * Takes the oldest element, or returns null if none is ready.
+     * Consumer thread only.
+     */
+    E poll() {
+        int slot = (int) head & mask;
+        if (sequences.getAcquire(slot) != head + 1) {
+            return null;
+        }
+        E element = elements.getPlain(slot);
+        elements.setPlain(slot, null);
+        sequences.setRelease(slot, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.airport;
+
+/**
+ * Phase durations shared by the threaded and the discrete-event simulations,
+ * so both produce comparable timings.
+ */
+public final class Config {
+    public static final long LANDING_MS = 800;
+    public static final long TAXI_TO_GATE_MS = 200;
+    public static final long DOCKING_MS = 500;
+    public static final long DISEMBARK_MS = 500;
+    public static final long CLEANING_MS = 500;
+    public static final long REFUEL_MS = 1000; // Default when a plane's fuel demand is unknown
+    public static final long REFUEL_MIN_MS = 500; // Nearly full tanks
+    public static final long REFUEL_MAX_MS = 1500; // Empty tanks (fuel emergencies)
+    public static final long BOARDING_MS = 500;
+    public static final long UNDOCKING_MS = 600;
+    public static final long TAXI_TO_RUNWAY_MS = 200;
+    public static final long TAKEOFF_MS = 500;
+
+    // A normal plane holding longer than this ranks ahead of a new emergency
+    public static final long LANDING_AGING_MS = 60_000;
+
+    public static final int GROUND_CAPACITY = 3; // Default max planes on the ground
+    public static final int EMERGENCY_PERCENT = 20; // Chance a plane arrives low on fuel
+    public static final int MAX_PASSENGERS = 50;
+
+    private Config() {
+    }
+}
@@ -0,0 +1,236 @@
+package com.airport;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where an Airport's ATC traffic spends its time, for telling which
+ * controller or resource is behind a throughput collapse.
+ *
+ * Records, into LatencyHistogram buckets:
+ * - mailbox wait per controller: how long the oldest request of each drain
+ *   had been waiting for it (wall clock, us);
+ * - response wait per request type: from the call until ATC answers, which
+ *   for a grant includes every batch it stayed parked (wall clock, us);
+ * - decision rounds per grant: controller batches a request stayed parked
+ *   through before its grant, the ATC form of a retry count;
+ * - hold time per resource: from grant until release (simulated ms).
+ *
+ * Every recorder is written by one controller only, so recording is a few
+ * plain increments with release stores (no CAS), and the only clock reads
+ * are one per call and one per batch; it is always on. It also keeps the
+ * set of request channels in use, which StarvationWatchdog scans for calls
+ * that have gone unanswered too long.
+ */
+final class ContentionProfiler {
+    private static final Airport.RequestType[] TYPES = Airport.RequestType.values();
+    private static final AtcController.Kind[] CONTROLLERS = AtcController.Kind.values();
+
+    enum Resource {
+        RUNWAY("Runway"),
+        GATE("Gate"),
+        GROUND("Ground slot"),
+        TRUCK("Refuel truck");
+
+        private final String label;
+
+        Resource(String label) {
+            this.label = label;
+        }
+
+        String getLabel() {
+            return label;
+        }
+    }
+
+    private final Recorder[] mailboxWaits; // By AtcController.Kind ordinal
+    private final Recorder[] responseWaits; // By RequestType ordinal; grants and releases
+    private final Recorder[] rounds; // By RequestType ordinal; granted types only
+    private final Recorder[] holds; // By Resource ordinal
+    private final Set<Airport.ATCRequest> outstanding; // Channels of planes that have not departed
+    private final LongAdder starved = new LongAdder();
+
+    ContentionProfiler() {
+        this.mailboxWaits = recorders(CONTROLLERS.length);
+        this.responseWaits = recorders(TYPES.length);
+        this.rounds = recorders(TYPES.length);
+        this.holds = recorders(Resource.values().length);
+        this.outstanding = ConcurrentHashMap.newKeySet();
+    }
+
+    private static Recorder[] recorders(int count) {
+        Recorder[] recorders = new Recorder[count];
+        for (int i = 0; i < count; i++) {
+            recorders[i] = new Recorder();
+        }
+        return recorders;
+    }
+
+    // Recorders
+
+    /**
+     * Tracks a call as it is handed to ATC; reset() has stamped it.
+     * Plane side, before the push.
+     */
+    void submitted(Airport.ATCRequest request) {
+        if (request.watchedBy != this) {
+            request.watchedBy = this;
+            outstanding.add(request);
+        }
+    }
+
+    /**
+     * Records how long the oldest request of a drain waited on the mailbox.
+     */
+    void drained(AtcController.Kind controller, Airport.ATCRequest oldest, long nowNanos) {
+        long since = oldest.forwarded ? oldest.forwardedNanos : oldest.submittedNanos;
+        mailboxWaits[controller.ordinal()].record(micros(nowNanos - since));
+    }
+
+    /**
+     * Records the answer to a call, dated by the controller's current batch.
+     * Called by the controller that completes it.
+     */
+    void completed(Airport.ATCRequest request, long nowNanos) {
+        // A refused call (a duplicate landing request) is answered by another
+        // controller than its grants, so it is not recorded
+        if (request.type.release) {
+            responseWaits[request.type.ordinal()].record(micros(nowNanos - request.submittedNanos));
+        } else if (request.granted) {
+            responseWaits[request.type.ordinal()].record(micros(nowNanos - request.submittedNanos));
+            rounds[request.type.ordinal()].record(request.rounds);
+        }
+        if (request.type == Airport.RequestType.DEPARTURE_RECORD) {
+            request.watchedBy = null;
+            outstanding.remove(request);
+        }
+    }
+
+    /**
+     * Starts a hold; the owning controller only.
+     */
+    void acquired(Resource resource, Airport.ATCRequest request, long now) {
+        request.heldSince[resource.ordinal()] = now;
+    }
+
+    /**
+     * Ends a hold started by acquired() on the same plane's channel.
+     */
+    void released(Resource resource, Airport.ATCRequest request, long now) {
+        holds[resource.ordinal()].record(now - request.heldSince[resource.ordinal()]);
+    }
+
+    void starved() {
+        starved.increment();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    // Readers: any thread
+
+    Set<Airport.ATCRequest> getOutstanding() {
+        return outstanding;
+    }
+
+    LatencyHistogram.Snapshot mailboxWait(AtcController.Kind controller) {
+        return mailboxWaits[controller.ordinal()].snapshot();
+    }
+
+    LatencyHistogram.Snapshot responseWait(Airport.RequestType type) {
+        return responseWaits[type.ordinal()].snapshot();
+    }
+
+    LatencyHistogram.Snapshot rounds(Airport.RequestType type) {
+        return rounds[type.ordinal()].snapshot();
+    }
+
+    LatencyHistogram.Snapshot hold(Resource resource) {
+        return holds[resource.ordinal()].snapshot();
+    }
+
+    /**
+     * Calls StarvationWatchdog has flagged.
+     */
+    long getStarved() {
+        return starved.sum();
+    }
+
+    void printReport() {
+        System.out.println("\nATC contention:");
+        System.out.println(String.format("  %-30s %8s %9s %7s %7s %7s %7s",
+                "Mailbox wait (us)", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (AtcController.Kind controller : CONTROLLERS) {
+            row(controller.name(), mailboxWait(controller));
+        }
+        System.out.println(String.format("  %-30s", "Response wait (us)"));
+        for (Airport.RequestType type : TYPES) {
+            row(type.name(), responseWait(type));
+        }
+        System.out.println(String.format("  %-30s", "Decision rounds before grant"));
+        for (Airport.RequestType type : TYPES) {
+            row(type.name(), rounds(type));
+        }
+        System.out.println(String.format("  %-30s", "Hold time (ms)"));
+        for (Resource resource : Resource.values()) {
+            row(resource.getLabel(), hold(resource));
+        }
+        System.out.println("  Calls flagged by the starvation watchdog: " + getStarved());
+    }
+
+    private static void row(String name, LatencyHistogram.Snapshot times) {
+        if (times.getCount() == 0) {
+            return;
+        }
+        System.out.println(String.format("    %-28s %8d %9.1f %7d %7d %7d %7d",
+                name, times.getCount(), times.getMean(), times.percentile(50),
+                times.percentile(90), times.percentile(99), times.getMax()));
+    }
+
+    /**
+     * LatencyHistogram buckets for a single writer, bumped with a plain read
+     * and a release store as in AtcMetrics. Readers may see a count from
+     * one record and the sum from the next.
+     */
+    private static final class Recorder {
+        private static final int SUM = 0;
+        private static final int MIN = 1;
+        private static final int MAX = 2;
+
+        private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+        private final AtomicLongArray totals = new AtomicLongArray(3);
+
+        Recorder() {
+            totals.setRelease(MIN, Long.MAX_VALUE);
+            totals.setRelease(MAX, Long.MIN_VALUE);
+        }
+
+        void record(long value) {
+            long clamped = Math.max(0, Math.min(value, LatencyHistogram.MAX_VALUE));
+            int bucket = LatencyHistogram.bucketOf(clamped);
+            counts.setRelease(bucket, counts.getPlain(bucket) + 1);
+            totals.setRelease(SUM, totals.getPlain(SUM) + clamped);
+            if (clamped < totals.getPlain(MIN)) {
+                totals.setRelease(MIN, clamped);
+            }
+            if (clamped > totals.getPlain(MAX)) {
+                totals.setRelease(MAX, clamped);
+            }
+        }
+
+        LatencyHistogram.Snapshot snapshot() {
+            long[] buckets = new long[LatencyHistogram.BUCKETS];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = counts.getAcquire(i);
+                count += buckets[i];
+            }
+            return new LatencyHistogram.Snapshot(buckets, count, totals.getAcquire(SUM),
+                    totals.getAcquire(MIN), totals.getAcquire(MAX));
+        }
+    }
+}
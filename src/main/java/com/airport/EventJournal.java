@@ -0,0 +1,358 @@
+package com.airport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only binary journal of ATC decisions and plane phase transitions.
+ *
+ * Every record is RECORD_SIZE bytes (little-endian):
+ * <pre>
+ *   0  long  time      simulation clock, ms
+ *   8  int   planeId
+ *  12  short kind      Kind.ordinal() + 1; 0 marks the end of the journal
+ *  14  short code      phase, hold reason, refuel policy...
+ *  16  int   a         runway, gate, truck, passengers...
+ *  20  int   b
+ *  24  long  value     wait time, duration, refuel time...
+ * </pre>
+ * The file is written through memory-mapped segments, so an append is a
+ * slot claim on one atomic counter plus a few stores into the page cache:
+ * no lock, no system call and no allocation, from any number of threads.
+ * The kind is stored last with release semantics, so a record is either
+ * complete or reads as the end of the journal. The first records are a
+ * header and the airport configuration, which is enough for JournalReplay to
+ * rebuild or rerun the run.
+ *
+ * DISABLED discards everything at the first check, like EventLog.SILENT.
+ */
+public final class EventJournal implements Closeable {
+    public static final int RECORD_SIZE = 32;
+    static final long MAGIC = 0x41544A524E4C0001L; // "ATJRNL" + 1
+    static final short VERSION = 1;
+    static final int SEGMENT_RECORDS = 1 << 21; // 64 MiB per mapping
+    static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_SIZE;
+    private static final int MAX_SEGMENTS = 4096;
+
+    // Record field offsets
+    static final int TIME = 0;
+    static final int PLANE = 8;
+    static final int KIND = 12;
+    static final int CODE = 14;
+    static final int A = 16;
+    static final int B = 20;
+    static final int VALUE = 24;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORTS = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** Records nothing; no file is opened. */
+    public static final EventJournal DISABLED = new EventJournal();
+
+    public enum Kind {
+        HEADER,           // code version, value MAGIC
+        CONFIG,           // plane gates, code refuel policy, a runways, b refuel trucks, value ground capacity
+        SEPARATION,       // a arrival separation ms, b departure separation ms,
+                          // value turnaround graph bits per gate class (16 each)
+        ARRIVAL,          // time arrival time, code 1 if emergency, a passengers, value refuel time
+        HOLD,             // code Airport.HoldReason
+        LANDING_GRANTED,  // a runway, b gate, value wait time
+        RUNWAY_RELEASED,  // a runway
+        TAKEOFF_GRANTED,  // a runway
+        REFUEL_GRANTED,   // a truck
+        REFUEL_RELEASED,  // a truck
+        GATE_RELEASED,    // a gate
+        DEPARTED,         // a passengers, value wait time
+        PHASE             // code FlightPhase, value duration
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicReferenceArray<MappedByteBuffer> segments;
+    private final AtomicLong next; // Index of the next record to claim
+
+    private EventJournal() {
+        this.path = null;
+        this.channel = null;
+        this.segments = null;
+        this.next = new AtomicLong();
+    }
+
+    private EventJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        this.segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+        this.next = new AtomicLong();
+        map(0);
+    }
+
+    /**
+     * Creates (or truncates) the journal file.
+     */
+    public static EventJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new EventJournal(path, channel);
+    }
+
+    /**
+     * The journal named by -Dairport.journal, or DISABLED if none is set.
+     */
+    public static EventJournal fromSystemProperties() {
+        String file = System.getProperty("airport.journal");
+        if (file == null) {
+            return DISABLED;
+        }
+        try {
+            return open(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + file, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    /**
+     * Records written so far.
+     */
+    public long size() {
+        return next.get();
+    }
+
+    /**
+     * Written once by the owning Airport or EventSimulation, before any
+     * traffic, so a replay knows the airport it ran on.
+     */
+    void begin(long time, int gates, AirportConfig config) {
+        append(Kind.HEADER, time, 0, VERSION, RECORD_SIZE, 0, MAGIC);
+        append(Kind.CONFIG, time, gates, config.getRefuelPolicy().ordinal(), config.getRunways(),
+                config.getRefuelTrucks(), config.getGroundCapacity());
+        long turnarounds = 0;
+        for (GateClass gateClass : GateClass.values()) {
+            turnarounds |= config.getTurnaround(gateClass).toBits() << (16 * gateClass.ordinal());
+        }
+        append(Kind.SEPARATION, time, 0, 0, Math.toIntExact(config.getArrivalSeparationMs()),
+                Math.toIntExact(config.getDepartureSeparationMs()), turnarounds);
+    }
+
+    public void arrival(long arrivalTime, int planeId, int passengers, boolean emergency, long refuelTime) {
+        append(Kind.ARRIVAL, arrivalTime, planeId, emergency ? 1 : 0, passengers, 0, refuelTime);
+    }
+
+    public void hold(long time, int planeId, int reason) {
+        append(Kind.HOLD, time, planeId, reason, 0, 0, 0);
+    }
+
+    public void landingGranted(long time, int planeId, int runway, int gate, long waitTime) {
+        append(Kind.LANDING_GRANTED, time, planeId, 0, runway, gate, waitTime);
+    }
+
+    public void runwayReleased(long time, int planeId, int runway) {
+        append(Kind.RUNWAY_RELEASED, time, planeId, 0, runway, 0, 0);
+    }
+
+    public void takeoffGranted(long time, int planeId, int runway) {
+        append(Kind.TAKEOFF_GRANTED, time, planeId, 0, runway, 0, 0);
+    }
+
+    public void refuelGranted(long time, int planeId, int truck) {
+        append(Kind.REFUEL_GRANTED, time, planeId, 0, truck, 0, 0);
+    }
+
+    public void refuelReleased(long time, int planeId, int truck) {
+        append(Kind.REFUEL_RELEASED, time, planeId, 0, truck, 0, 0);
+    }
+
+    public void gateReleased(long time, int planeId, int gate) {
+        append(Kind.GATE_RELEASED, time, planeId, 0, gate, 0, 0);
+    }
+
+    public void departed(long time, int planeId, int passengers, long waitTime) {
+        append(Kind.DEPARTED, time, planeId, 0, passengers, 0, waitTime);
+    }
+
+    public void phase(long time, int planeId, FlightPhase phase, long duration) {
+        append(Kind.PHASE, time, planeId, phase.ordinal(), 0, 0, duration);
+    }
+
+    private void append(Kind kind, long time, int planeId, int code, int a, int b, long value) {
+        if (channel == null) {
+            return;
+        }
+        long index = next.getAndIncrement();
+        int segmentIndex = (int) (index / SEGMENT_RECORDS);
+        int slot = (int) (index % SEGMENT_RECORDS);
+        if (slot == SEGMENT_RECORDS / 2 && segmentIndex + 1 < MAX_SEGMENTS) {
+            // Map the next segment well before anyone needs it
+            map(segmentIndex + 1);
+        }
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segment = map(segmentIndex);
+        }
+        int offset = slot * RECORD_SIZE;
+        LONGS.set(segment, offset + TIME, time);
+        INTS.set(segment, offset + PLANE, planeId);
+        SHORTS.set(segment, offset + CODE, (short) code);
+        INTS.set(segment, offset + A, a);
+        INTS.set(segment, offset + B, b);
+        LONGS.set(segment, offset + VALUE, value);
+        // Last, so a reader never sees a partly written record
+        SHORTS.setRelease(segment, offset + KIND, (short) (kind.ordinal() + 1));
+    }
+
+    private synchronized MappedByteBuffer map(int segmentIndex) {
+        if (segmentIndex >= MAX_SEGMENTS) {
+            throw new IllegalStateException("Journal " + path + " is full");
+        }
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        if (segment == null) {
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentIndex * SEGMENT_BYTES, SEGMENT_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot extend journal " + path, e);
+            }
+            segments.set(segmentIndex, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Flushes the journal and trims the file to the records written. Call
+     * once every writer has finished.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            return;
+        }
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            MappedByteBuffer segment = segments.get(i);
+            if (segment == null) {
+                break;
+            }
+            segment.force();
+        }
+        channel.truncate(next.get() * RECORD_SIZE);
+        channel.close();
+    }
+
+    /**
+     * One decoded record, as returned by JournalReader.
+     */
+    public static final class Record {
+        private final Kind kind;
+        private final long time;
+        private final int planeId;
+        private final int code;
+        private final int a;
+        private final int b;
+        private final long value;
+
+        Record(Kind kind, long time, int planeId, int code, int a, int b, long value) {
+            this.kind = kind;
+            this.time = time;
+            this.planeId = planeId;
+            this.code = code;
+            this.a = a;
+            this.b = b;
+            this.value = value;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public int getPlaneId() {
+            return planeId;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public int getA() {
+            return a;
+        }
+
+        public int getB() {
+            return b;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Record)) {
+                return false;
+            }
+            Record other = (Record) o;
+            return kind == other.kind && time == other.time && planeId == other.planeId && code == other.code
+                    && a == other.a && b == other.b && value == other.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, time, planeId, code, a, b, value);
+        }
+
+        @Override
+        public String toString() {
+            String at = String.format("%10d ", time);
+            switch (kind) {
+                case HEADER:
+                    return at + "Journal version " + code;
+                case CONFIG:
+                    return at + "Airport: " + planeId + " gates, ground capacity " + value + ", " + a +
+                            " runway(s), " + b + " refuel truck(s), " + RefuelPolicy.values()[code] + " refuelling";
+                case SEPARATION:
+                    return at + "Separation: arrivals " + a + " ms, departures " + b + " ms" +
+                            (value == 0 ? "" : "; turnaround " + JournalReplay.turnarounds(value));
+                case ARRIVAL:
+                    return at + "Plane " + planeId + " arrived with " + a + " passengers" +
+                            (code == 1 ? " [EMERGENCY]" : "") + ", needs " + value + " ms of refuelling";
+                case HOLD:
+                    return at + "Plane " + planeId + " holding: " + Airport.HoldReason.values()[code].getMessage();
+                case LANDING_GRANTED:
+                    return at + "Plane " + planeId + " cleared to land on runway " + a + " at Gate " + b +
+                            " (waited " + value + " ms)";
+                case RUNWAY_RELEASED:
+                    return at + "Plane " + planeId + " released runway " + a;
+                case TAKEOFF_GRANTED:
+                    return at + "Plane " + planeId + " cleared for takeoff on runway " + a;
+                case REFUEL_GRANTED:
+                    return at + "Plane " + planeId + " assigned refuel truck " + a;
+                case REFUEL_RELEASED:
+                    return at + "Plane " + planeId + " released refuel truck " + a;
+                case GATE_RELEASED:
+                    return at + "Plane " + planeId + " released Gate " + a;
+                case DEPARTED:
+                    return at + "Plane " + planeId + " departed with " + a + " passengers";
+                case PHASE:
+                    return at + "Plane " + planeId + " " + FlightPhase.values()[code].getLabel() + ": " + value + " ms";
+                default:
+                    return at + kind;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.airport;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event logger for the simulation's hot paths.
+ *
+ * Callers pass a message template with "{}" placeholders and up to three
+ * arguments. Ids and times have int and long overloads, which box them
+ * only after the level check, so a disabled call allocates nothing. The
+ * call records the template, the arguments and the calling thread's name
+ * into a lock-free ring buffer and returns. One writer thread formats the
+ * entries and writes them as "[ThreadName] : message", the same shape
+ * Utils.threadInfo() produces. Formatting and console contention therefore
+ * stay off the ATC and plane threads. Arguments must be immutable values
+ * (ids, strings, numbers), since they are formatted later.
+ *
+ * If the buffer fills, producers wait for the writer rather than dropping
+ * lines. A log at Level.OFF (see SILENT) discards everything at the level
+ * check and never starts a writer thread; use it for benchmark runs.
+ */
+public final class EventLog {
+
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARN,
+        ERROR,
+        OFF
+    }
+
+    /** Discards everything; nothing is formatted and no thread is started. */
+    public static final EventLog SILENT = new EventLog(Level.OFF, System.out, System.err, 2);
+
+    private static EventLog console;
+
+    private final Level level;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    // Ring buffer: slot i is free for claim position p when sequences[i] == p,
+    // and readable when sequences[i] == p + 1
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Level[] levels;
+    private final String[] threadNames;
+    private final String[] templates;
+    private final Object[] args0;
+    private final Object[] args1;
+    private final Object[] args2;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long written;
+
+    private final Thread writer;
+    private volatile boolean writerParked;
+
+    /**
+     * The shared console log, at the level given by -Dairport.log
+     * (debug, info, warn, error or off; default info).
+     */
+    public static synchronized EventLog console() {
+        if (console == null) {
+            Level level = Level.valueOf(System.getProperty("airport.log", "info").trim().toUpperCase());
+            console = level == Level.OFF ? SILENT : new EventLog(level, System.out, System.err, 1 << 14);
+        }
+        return console;
+    }
+
+    /**
+     * @param capacity ring buffer size, rounded up to a power of two
+     */
+    public EventLog(Level level, PrintStream out, PrintStream err, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.level = level;
+        this.out = out;
+        this.err = err;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.levels = new Level[size];
+        this.threadNames = new String[size];
+        this.templates = new String[size];
+        this.args0 = new Object[size];
+        this.args1 = new Object[size];
+        this.args2 = new Object[size];
+
+        if (level == Level.OFF) {
+            this.writer = null;
+        } else {
+            this.writer = new Thread(this::drainLoop, "EventLog-Writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    public void debug(String template) {
+        log(Level.DEBUG, template, null, null, null);
+    }
+
+    public void debug(String template, Object a) {
+        log(Level.DEBUG, template, a, null, null);
+    }
+
+    public void debug(String template, Object a, Object b) {
+        log(Level.DEBUG, template, a, b, null);
+    }
+
+    public void info(String template) {
+        log(Level.INFO, template, null, null, null);
+    }
+
+    public void info(String template, Object a) {
+        log(Level.INFO, template, a, null, null);
+    }
+
+    public void info(String template, Object a, Object b) {
+        log(Level.INFO, template, a, b, null);
+    }
+
+    public void info(String template, Object a, Object b, Object c) {
+        log(Level.INFO, template, a, b, c);
+    }
+
+    public void info(String template, int a) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, template, a, null, null);
+        }
+    }
+
+    public void info(String template, long a) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, template, a, null, null);
+        }
+    }
+
+    public void info(String template, int a, int b) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, template, a, b, null);
+        }
+    }
+
+    public void info(String template, int a, int b, int c) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, template, a, b, c);
+        }
+    }
+
+    public void warn(String template) {
+        log(Level.WARN, template, null, null, null);
+    }
+
+    public void warn(String template, Object a) {
+        log(Level.WARN, template, a, null, null);
+    }
+
+    public void warn(String template, Object a, Object b) {
+        log(Level.WARN, template, a, b, null);
+    }
+
+    public void error(String template) {
+        log(Level.ERROR, template, null, null, null);
+    }
+
+    public void error(String template, Object a) {
+        log(Level.ERROR, template, a, null, null);
+    }
+
+    public void error(String template, int a) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, template, a, null, null);
+        }
+    }
+
+    public void error(String template, Object a, Object b, Object c) {
+        log(Level.ERROR, template, a, b, c);
+    }
+
+    private void log(Level messageLevel, String template, Object a, Object b, Object c) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+        long position = claimed.getAndIncrement();
+        int slot = (int) position & mask;
+        while (sequences.get(slot) != position) {
+            // Buffer full: wait for the writer to free this slot
+            wakeWriter();
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        levels[slot] = messageLevel;
+        threadNames[slot] = Thread.currentThread().getName();
+        templates[slot] = template;
+        args0[slot] = a;
+        args1[slot] = b;
+        args2[slot] = c;
+        sequences.set(slot, position + 1);
+        if (writerParked) {
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Blocks until everything logged before this call has been written.
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        long target = claimed.get();
+        while (written < target) {
+            wakeWriter();
+            LockSupport.parkNanos(100_000);
+        }
+        out.flush();
+        err.flush();
+    }
+
+    private void wakeWriter() {
+        LockSupport.unpark(writer);
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(128);
+        long position = 0;
+        while (true) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                out.flush();
+                writerParked = true;
+                if (sequences.get(slot) != position + 1) {
+                    LockSupport.park(this);
+                }
+                writerParked = false;
+                continue;
+            }
+
+            line.setLength(0);
+            line.append('[').append(threadNames[slot]).append("] : ");
+            format(line, templates[slot], args0[slot], args1[slot], args2[slot]);
+            Level messageLevel = levels[slot];
+            threadNames[slot] = null;
+            templates[slot] = null;
+            args0[slot] = null;
+            args1[slot] = null;
+            args2[slot] = null;
+            sequences.set(slot, position + mask + 1);
+            position++;
+
+            PrintStream target = messageLevel.compareTo(Level.WARN) >= 0 ? err : out;
+            target.println(line);
+            written = position;
+        }
+    }
+
+    private static void format(StringBuilder line, String template, Object a, Object b, Object c) {
+        int argIndex = 0;
+        int start = 0;
+        int hole;
+        while ((hole = template.indexOf("{}", start)) >= 0) {
+            line.append(template, start, hole);
+            Object arg = argIndex == 0 ? a : argIndex == 1 ? b : c;
+            line.append(argIndex < 3 ? String.valueOf(arg) : "{}");
+            argIndex++;
+            start = hole + 2;
+        }
+        line.append(template, start, template.length());
+    }
+}
@@ -0,0 +1,878 @@
+package com.airport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Discrete-event version of the airport simulation.
+ *
+ * Instead of one thread per plane sleeping through each phase, every phase
+ * end is a timestamped event in a priority queue and a VirtualClock jumps
+ * from one event to the next. The ATC rules are the same as in Airport
+ * (emergency-first LandingQueue with aging, a gate and ground slot reserved
+ * before a plane queues for the runway, departures before arrivals on the
+ * runway, parked waiters granted on release) and phase lengths come from
+ * Config, so the wait-time statistics match the threaded run while a day
+ * of traffic replays in well under a second.
+ *
+ * Single-threaded: build it, schedule arrivals, then call run().
+ *
+ * A run can be stopped at a simulated time, checkpointed and resumed later,
+ * or restored many times to fork what-if runs from one warmed-up state
+ * (see checkpoint()). Between two events the state is always consistent,
+ * so a checkpoint needs no pause or drain.
+ */
+public class EventSimulation {
+
+    static final long CHECKPOINT_MAGIC = 0x415443484B505401L; // "ATCHKPT" + 1
+    static final short CHECKPOINT_VERSION = 1;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final TurnaroundGraph.Task[] TASKS = TurnaroundGraph.Task.values();
+
+    private enum EventType {
+        ARRIVAL,
+        RUNWAY_VACATED, // Landing roll finished
+        DOCKED, // Taxied to the gate and docked
+        TASK_DONE, // A turnaround task finished
+        UNDOCKED,
+        AT_HOLDING_POINT, // Taxied to the runway, ready for a takeoff slot
+        DEPARTED,
+        RUNWAY_SLOT // A separation gap ended; no plane
+    }
+
+    private static final class Event {
+        final long time;
+        final long sequence; // Keeps simultaneous events in scheduling order
+        final EventType type;
+        final SimPlane plane;
+        final TurnaroundGraph.Task task; // For TASK_DONE
+
+        Event(long time, long sequence, EventType type, SimPlane plane, TurnaroundGraph.Task task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.plane = plane;
+            this.task = task;
+        }
+    }
+
+    private static final class SimPlane {
+        final int id;
+        final int passengers;
+        final boolean emergency;
+        final long refuelTime;
+        final long arrivalTime;
+        long waitTime;
+        long landingTime;
+        long phaseStart; // When the current FlightPhase began
+        Gate gate;
+        int truck;
+        // Turnaround in progress: unfinished dependencies per task, and tasks not yet done
+        TurnaroundGraph turnaround;
+        TurnaroundGraph.Timeline timeline;
+        int[] pending;
+        int unfinished;
+        long docked;
+
+        SimPlane(int id, int passengers, boolean emergency, long refuelTime, long arrivalTime) {
+            this.id = id;
+            this.passengers = passengers;
+            this.emergency = emergency;
+            this.refuelTime = refuelTime;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+
+    private final VirtualClock clock;
+    private final PriorityQueue<Event> events;
+    private long nextSequence;
+    private Iterator<Arrival> arrivals; // Streamed traffic, pulled one arrival ahead
+    private long arrivalsStart;
+    private long arrivalsPulled; // From the stream so far, for a resumed run to skip
+    private SimPlane streamedArrival;
+
+    private final AirportConfig config;
+    private final GateAllocator gates;
+    private int freeCapacity;
+    private final RunwaySequencer runways;
+    private long pendingSlot = Long.MAX_VALUE; // Time of the RUNWAY_SLOT event already scheduled
+    private final LandingQueue<SimPlane> landingQueue;
+    private final LandingQueue<SimPlane> clearedArrivals; // Gate and ground reserved, waiting for a runway
+    private final Queue<SimPlane> takeoffWaiters;
+    private final RefuelDispatcher<SimPlane> refuelDispatcher;
+    private final Statistics stats;
+    private final EventJournal journal;
+    private final ResourceMeter runwayMeter;
+    private final ResourceMeter[] runwayMeters; // Indexed by runway number - 1; empty with a single runway
+    private final ResourceMeter refuelMeter;
+    private final ResourceMeter[] truckMeters; // Indexed by truck number - 1; empty with a single truck
+    private final ResourceMeter groundMeter;
+    private final ResourceMeter[] gateMeters;
+
+    public EventSimulation(int numGates) {
+        this(numGates, AirportConfig.DEFAULT);
+    }
+
+    public EventSimulation(int numGates, AirportConfig config) {
+        this(numGates, config, EventJournal.DISABLED);
+    }
+
+    /**
+     * Same run, also recording every decision and phase in the journal.
+     * The run is deterministic, so the same traffic always produces the
+     * same journal.
+     */
+    public EventSimulation(int numGates, AirportConfig config, EventJournal journal) {
+        this(numGates, config, journal, 0);
+        journal.begin(clock.now(), gates.size(), config);
+    }
+
+    // A simulation whose clock and statistics start at startTime; the caller
+    // begins the journal
+    private EventSimulation(int numGates, AirportConfig config, EventJournal journal, long startTime) {
+        this.clock = new VirtualClock(startTime);
+        this.journal = journal;
+        this.config = config;
+        this.events = new PriorityQueue<>((a, b) -> a.time != b.time
+                ? Long.compare(a.time, b.time)
+                : Long.compare(a.sequence, b.sequence));
+        this.gates = new GateAllocator(numGates - 1, 0, 1); // Last gate is for emergencies
+        this.freeCapacity = config.getGroundCapacity();
+        this.landingQueue = new LandingQueue<>(Config.LANDING_AGING_MS);
+        this.clearedArrivals = new LandingQueue<>(Config.LANDING_AGING_MS);
+        this.takeoffWaiters = new ArrayDeque<>();
+        this.refuelDispatcher = new RefuelDispatcher<>(config.getRefuelTrucks(), config.getRefuelPolicy());
+        this.stats = new Statistics(clock);
+        this.runways = new RunwaySequencer(config.getRunways(),
+                config.getArrivalSeparationMs(), config.getDepartureSeparationMs());
+        this.runwayMeter = stats.newMeter(config.getRunways() > 1 ? "Runways" : "Runway", config.getRunways());
+        this.runwayMeters = new ResourceMeter[config.getRunways() > 1 ? config.getRunways() : 0];
+        for (int i = 0; i < runwayMeters.length; i++) {
+            runwayMeters[i] = stats.newMeter("Runway " + (i + 1), 1);
+        }
+        this.refuelMeter = stats.newMeter("Refuel trucks", config.getRefuelTrucks());
+        this.truckMeters = new ResourceMeter[config.getRefuelTrucks() > 1 ? config.getRefuelTrucks() : 0];
+        for (int i = 0; i < truckMeters.length; i++) {
+            truckMeters[i] = stats.newMeter("Refuel truck " + (i + 1), 1);
+        }
+        this.groundMeter = stats.newMeter("Ground capacity", config.getGroundCapacity());
+        this.gateMeters = new ResourceMeter[gates.size()];
+        for (Gate gate : gates.getGates()) {
+            gateMeters[gate.getId() - 1] = stats.newMeter("Gate " + gate.getId() +
+                    " (" + gate.getGateClass() + ")", 1);
+        }
+    }
+
+    public void scheduleArrival(long time, int id, int passengers, boolean emergency) {
+        scheduleArrival(time, id, passengers, emergency, Config.REFUEL_MS);
+    }
+
+    public void scheduleArrival(long time, int id, int passengers, boolean emergency, long refuelTime) {
+        schedule(time, EventType.ARRIVAL, new SimPlane(id, passengers, emergency, refuelTime, time));
+    }
+
+    /**
+     * Processes events in time order until none are left.
+     */
+    public void run() {
+        run(null);
+    }
+
+    /**
+     * Like run(), but also pulls arrivals from the given stream. Only the next
+     * arrival is scheduled at a time; when it is handled the one after it is
+     * pulled, so the event queue stays small however long the traffic is.
+     * Arrival times are offsets from the current clock time.
+     */
+    public void run(Iterator<Arrival> arrivals) {
+        run(arrivals, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like run(arrivals), but stops before the first event later than
+     * until and returns true if any are left. A stopped run can be
+     * checkpointed, and resume() carries it on with the same stream.
+     */
+    public boolean run(Iterator<Arrival> arrivals, long until) {
+        this.arrivals = arrivals;
+        this.arrivalsStart = clock.now();
+        this.arrivalsPulled = 0;
+        scheduleNextArrival();
+        return resume(until);
+    }
+
+    /**
+     * Carries on a stopped or restored run until the next event is later
+     * than until; returns true if any events are left.
+     */
+    public boolean resume(long until) {
+        Event event;
+        while ((event = events.peek()) != null && event.time <= until) {
+            events.poll();
+            clock.advanceTo(event.time);
+            handle(event);
+        }
+        if (event == null) {
+            this.arrivals = null;
+            return false;
+        }
+        return true;
+    }
+
+    public Statistics getStatistics() {
+        return stats;
+    }
+
+    public SimClock getClock() {
+        return clock;
+    }
+
+    private void scheduleNextArrival() {
+        if (arrivals != null && arrivals.hasNext()) {
+            Arrival next = arrivals.next();
+            arrivalsPulled++;
+            SimPlane plane = new SimPlane(next.getPlaneId(), next.getPassengers(), next.isEmergency(),
+                    next.getRefuelTime(), Math.max(clock.now(), arrivalsStart + next.getTime()));
+            streamedArrival = plane;
+            schedule(plane.arrivalTime, EventType.ARRIVAL, plane);
+        }
+    }
+
+    private void schedule(long time, EventType type, SimPlane plane) {
+        schedule(time, type, plane, null);
+    }
+
+    private void schedule(long time, EventType type, SimPlane plane, TurnaroundGraph.Task task) {
+        events.add(new Event(time, nextSequence++, type, plane, task));
+    }
+
+    private void handle(Event event) {
+        SimPlane plane = event.plane;
+        long now = event.time;
+        switch (event.type) {
+            case ARRIVAL:
+                landingQueue.add(plane.id, plane, plane.emergency, now);
+                journal.arrival(now, plane.id, plane.passengers, plane.emergency, plane.refuelTime);
+                if (plane == streamedArrival) {
+                    scheduleNextArrival();
+                }
+                break;
+            case RUNWAY_VACATED:
+                releaseRunway(plane, now);
+                recordPhase(plane, FlightPhase.LANDING, Config.LANDING_MS, now);
+                schedule(now + Config.TAXI_TO_GATE_MS + Config.DOCKING_MS, EventType.DOCKED, plane);
+                break;
+            case DOCKED:
+                recordPhase(plane, FlightPhase.TAXI_TO_GATE, Config.TAXI_TO_GATE_MS, now - Config.DOCKING_MS);
+                recordPhase(plane, FlightPhase.DOCKING, Config.DOCKING_MS, now);
+                startTurnaround(plane, now);
+                break;
+            case TASK_DONE:
+                if (event.task == TurnaroundGraph.Task.REFUEL) {
+                    refuelDispatcher.releaseTruck(plane.truck);
+                    journal.refuelReleased(now, plane.id, plane.truck);
+                    refuelMeter.release(now);
+                    if (truckMeters.length > 0) {
+                        truckMeters[plane.truck - 1].release(now);
+                    }
+                }
+                finishTask(plane, event.task, now);
+                break;
+            case UNDOCKED:
+                gates.release(plane.gate);
+                journal.gateReleased(now, plane.id, plane.gate.getId());
+                gateMeters[plane.gate.getId() - 1].release(now);
+                endPhase(plane, FlightPhase.UNDOCKING, now);
+                schedule(now + Config.TAXI_TO_RUNWAY_MS, EventType.AT_HOLDING_POINT, plane);
+                break;
+            case AT_HOLDING_POINT:
+                endPhase(plane, FlightPhase.TAXI_TO_RUNWAY, now);
+                takeoffWaiters.add(plane);
+                break;
+            case DEPARTED:
+                releaseRunway(plane, now);
+                freeCapacity++;
+                groundMeter.release(now);
+                recordPhase(plane, FlightPhase.TAKEOFF, Config.TAKEOFF_MS, now);
+                recordPhase(plane, FlightPhase.TURNAROUND, now - plane.landingTime, now);
+                stats.recordPlane(plane.passengers, plane.waitTime);
+                journal.departed(now, plane.id, plane.passengers, plane.waitTime);
+                break;
+            case RUNWAY_SLOT:
+                if (now == pendingSlot) {
+                    pendingSlot = Long.MAX_VALUE;
+                }
+                break;
+        }
+        dispatchWaiters(now);
+    }
+
+    // Same staging as Airport: refuel trucks, then gate and ground reservations
+    // for the landing queue (GroundControl), then runway slots (RunwayControl)
+    private void dispatchWaiters(long now) {
+        while (refuelDispatcher.canDispatch()) {
+            int truck = refuelDispatcher.takeTruck();
+            SimPlane refueling = refuelDispatcher.poll();
+            refueling.truck = truck;
+            journal.refuelGranted(now, refueling.id, truck);
+            refuelMeter.acquire(now);
+            if (truckMeters.length > 0) {
+                truckMeters[truck - 1].acquire(now);
+            }
+            refueling.timeline.truckAssigned(now);
+            schedule(now + refueling.refuelTime, EventType.TASK_DONE, refueling, TurnaroundGraph.Task.REFUEL);
+        }
+
+        while (tryReserveGround(now)) {
+            // Keep going while capacity and gates last
+        }
+
+        // Open runway slots, alternating arrivals and departures unless
+        // ground capacity binds
+        long wakeAt = Long.MAX_VALUE;
+        boolean granted = true;
+        while (granted) {
+            if (runways.firstChoice(freeCapacity == 0) == RunwaySequencer.Movement.DEPARTURE) {
+                granted = tryGrantTakeoff(now) || tryGrantLanding(now);
+            } else {
+                granted = tryGrantLanding(now) || tryGrantTakeoff(now);
+            }
+        }
+        if (!takeoffWaiters.isEmpty()) {
+            wakeAt = runways.nextSlot(RunwaySequencer.Movement.DEPARTURE);
+        }
+        if (!clearedArrivals.isEmpty()) {
+            wakeAt = Math.min(wakeAt, runways.nextSlot(RunwaySequencer.Movement.ARRIVAL));
+        }
+        // Wake up when a separation gap ends; a runway release wakes us anyway
+        if (wakeAt != Long.MAX_VALUE && wakeAt > now && wakeAt != pendingSlot) {
+            pendingSlot = wakeAt;
+            schedule(wakeAt, EventType.RUNWAY_SLOT, null);
+        }
+    }
+
+    // Starts every task of the gate's turnaround graph that depends on nothing
+    private void startTurnaround(SimPlane plane, long now) {
+        TurnaroundGraph turnaround = config.getTurnaround(plane.gate.getGateClass());
+        plane.turnaround = turnaround;
+        plane.timeline = new TurnaroundGraph.Timeline();
+        plane.pending = new int[TurnaroundGraph.Task.values().length];
+        plane.unfinished = turnaround.getOrder().size();
+        plane.docked = now;
+        for (TurnaroundGraph.Task task : turnaround.getOrder()) {
+            plane.pending[task.ordinal()] = turnaround.dependenciesOf(task).size();
+        }
+        for (TurnaroundGraph.Task task : turnaround.getOrder()) {
+            if (plane.pending[task.ordinal()] == 0) {
+                startTask(plane, task, now);
+            }
+        }
+    }
+
+    private void startTask(SimPlane plane, TurnaroundGraph.Task task, long now) {
+        plane.timeline.started(task, now);
+        if (task == TurnaroundGraph.Task.REFUEL) {
+            // Waits for a truck; dispatchWaiters() schedules the end
+            refuelDispatcher.add(plane, plane.refuelTime, plane.emergency, now);
+        } else {
+            schedule(now + task.duration(plane.refuelTime), EventType.TASK_DONE, plane, task);
+        }
+    }
+
+    // Starts the tasks that were only waiting for this one, and undocks once all are done
+    private void finishTask(SimPlane plane, TurnaroundGraph.Task task, long now) {
+        plane.timeline.finished(task, now);
+        for (TurnaroundGraph.Task dependent : plane.turnaround.dependentsOf(task)) {
+            if (--plane.pending[dependent.ordinal()] == 0) {
+                startTask(plane, dependent, now);
+            }
+        }
+        if (--plane.unfinished == 0) {
+            plane.timeline.forEachPhase(plane.docked, (phase, duration) -> recordPhase(plane, phase, duration, now));
+            plane.phaseStart = now;
+            plane.turnaround = null;
+            plane.timeline = null;
+            plane.pending = null;
+            schedule(now + Config.UNDOCKING_MS, EventType.UNDOCKED, plane);
+        }
+    }
+
+    private boolean tryGrantTakeoff(long now) {
+        SimPlane departing = takeoffWaiters.peek();
+        if (departing == null) {
+            return false;
+        }
+        int runway = runways.available(RunwaySequencer.Movement.DEPARTURE, now);
+        if (runway == RunwaySequencer.NO_RUNWAY) {
+            return false;
+        }
+        takeoffWaiters.poll();
+        occupyRunway(runway, RunwaySequencer.Movement.DEPARTURE, departing, now);
+        journal.takeoffGranted(now, departing.id, runway);
+        endPhase(departing, FlightPhase.TAKEOFF_WAIT, now);
+        schedule(now + Config.TAKEOFF_MS, EventType.DEPARTED, departing);
+        return true;
+    }
+
+    // Takes a gate and a ground slot for the head of the landing queue and
+    // queues the plane for a runway
+    private boolean tryReserveGround(long now) {
+        SimPlane plane = landingQueue.peek();
+        if (plane == null || freeCapacity == 0) {
+            return false;
+        }
+        Gate gate = plane.emergency
+                ? gates.allocate(GateClass.EMERGENCY, GateClass.NORMAL, GateClass.WIDE_BODY)
+                : gates.allocate(GateClass.NORMAL, GateClass.WIDE_BODY);
+        if (gate == null) {
+            return false;
+        }
+
+        landingQueue.poll();
+        freeCapacity--;
+        groundMeter.acquire(now);
+        gateMeters[gate.getId() - 1].acquire(now);
+        plane.gate = gate;
+        clearedArrivals.add(plane.id, plane, plane.emergency, now);
+        return true;
+    }
+
+    private boolean tryGrantLanding(long now) {
+        // Emergencies first among the planes that already have a gate
+        SimPlane plane = clearedArrivals.peek();
+        if (plane == null) {
+            return false;
+        }
+        int runway = runways.available(RunwaySequencer.Movement.ARRIVAL, now);
+        if (runway == RunwaySequencer.NO_RUNWAY) {
+            return false;
+        }
+
+        clearedArrivals.poll();
+        occupyRunway(runway, RunwaySequencer.Movement.ARRIVAL, plane, now);
+        plane.waitTime = now - plane.arrivalTime;
+        plane.landingTime = now;
+        journal.landingGranted(now, plane.id, runway, plane.gate.getId(), plane.waitTime);
+        recordPhase(plane, FlightPhase.HOLDING, plane.waitTime, now);
+        schedule(now + Config.LANDING_MS, EventType.RUNWAY_VACATED, plane);
+        return true;
+    }
+
+    private void occupyRunway(int runway, RunwaySequencer.Movement movement, SimPlane plane, long now) {
+        runways.occupy(runway, movement, plane.id);
+        runwayMeter.acquire(now);
+        if (runwayMeters.length > 0) {
+            runwayMeters[runway - 1].acquire(now);
+        }
+    }
+
+    private void releaseRunway(SimPlane plane, long now) {
+        int runway = runways.release(plane.id, now);
+        journal.runwayReleased(now, plane.id, runway);
+        runwayMeter.release(now);
+        if (runwayMeters.length > 0) {
+            runwayMeters[runway - 1].release(now);
+        }
+    }
+
+    private void recordPhase(SimPlane plane, FlightPhase phase, long duration, long now) {
+        stats.recordPhase(phase, duration);
+        journal.phase(now, plane.id, phase, duration);
+    }
+
+    private void endPhase(SimPlane plane, FlightPhase phase, long now) {
+        recordPhase(plane, phase, now - plane.phaseStart, now);
+        plane.phaseStart = now;
+    }
+
+    /**
+     * Writes the whole simulation to out in a compact binary form: the
+     * airport, the clock, every pending event, the landing, cleared-arrival,
+     * takeoff and refuel queues in their grant order, runway, gate and truck
+     * holders, each plane's progress (its current phase is the event that
+     * ends it, and a turnaround keeps its task timeline), the statistics so
+     * far, and how far the arrival stream has been read. Call it between
+     * runs, e.g. after run(arrivals, until) returned. out is flushed, not
+     * closed.
+     */
+    public void checkpoint(OutputStream out) throws IOException {
+        // Number every plane still at the airport or on its way
+        Map<SimPlane, Integer> refs = new IdentityHashMap<>();
+        List<SimPlane> planes = new ArrayList<>();
+        Consumer<SimPlane> number = plane -> {
+            if (plane != null && refs.putIfAbsent(plane, planes.size()) == null) {
+                planes.add(plane);
+            }
+        };
+        for (Event event : events) {
+            number.accept(event.plane);
+        }
+        landingQueue.forEach(number);
+        clearedArrivals.forEach(number);
+        takeoffWaiters.forEach(number);
+        refuelDispatcher.forEach(number);
+        ToIntFunction<SimPlane> ref = plane -> plane == null ? -1 : refs.getOrDefault(plane, -1);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeLong(CHECKPOINT_MAGIC);
+        data.writeShort(CHECKPOINT_VERSION);
+        data.writeShort(gates.size());
+        data.writeInt(config.getGroundCapacity());
+        data.writeShort(config.getRunways());
+        data.writeLong(config.getArrivalSeparationMs());
+        data.writeLong(config.getDepartureSeparationMs());
+        data.writeShort(config.getRefuelTrucks());
+        data.writeByte(config.getRefuelPolicy().ordinal());
+        for (GateClass gateClass : GateClass.values()) {
+            data.writeShort((int) config.getTurnaround(gateClass).toBits());
+        }
+
+        data.writeLong(stats.getStartTime());
+        data.writeLong(clock.now());
+        data.writeLong(nextSequence);
+        data.writeLong(pendingSlot);
+        data.writeInt(freeCapacity);
+        data.writeLong(arrivalsStart);
+        data.writeLong(arrivalsPulled);
+
+        data.writeInt(planes.size());
+        for (SimPlane plane : planes) {
+            writePlane(data, plane);
+        }
+        data.writeInt(ref.applyAsInt(streamedArrival));
+        data.writeInt(events.size());
+        for (Event event : events) {
+            data.writeLong(event.time);
+            data.writeLong(event.sequence);
+            data.writeByte(event.type.ordinal());
+            data.writeInt(ref.applyAsInt(event.plane));
+            data.writeByte(event.task == null ? -1 : event.task.ordinal());
+        }
+        landingQueue.writeState(data, ref);
+        clearedArrivals.writeState(data, ref);
+        data.writeInt(takeoffWaiters.size());
+        for (SimPlane plane : takeoffWaiters) {
+            data.writeInt(ref.applyAsInt(plane));
+        }
+        refuelDispatcher.writeState(data, ref);
+        runways.writeState(data);
+        gates.writeState(data);
+        stats.writeState(data);
+        data.flush();
+    }
+
+    private static void writePlane(DataOutputStream data, SimPlane plane) throws IOException {
+        data.writeInt(plane.id);
+        data.writeInt(plane.passengers);
+        data.writeBoolean(plane.emergency);
+        data.writeLong(plane.refuelTime);
+        data.writeLong(plane.arrivalTime);
+        data.writeLong(plane.waitTime);
+        data.writeLong(plane.landingTime);
+        data.writeLong(plane.phaseStart);
+        data.writeShort(plane.gate == null ? 0 : plane.gate.getId());
+        data.writeShort(plane.truck);
+        data.writeBoolean(plane.turnaround != null);
+        if (plane.turnaround != null) {
+            data.writeShort((int) plane.turnaround.toBits());
+            plane.timeline.writeState(data);
+            for (int pending : plane.pending) {
+                data.writeByte(pending);
+            }
+            data.writeByte(plane.unfinished);
+            data.writeLong(plane.docked);
+        }
+    }
+
+    /**
+     * Rebuilds a simulation from checkpoint() output on the airport it was
+     * taken on. arrivals is the stream the checkpointed run was reading,
+     * from its start (or null): the arrivals it had already pulled are
+     * skipped, so the same traffic carries on exactly, while a different
+     * seed or rate forks a what-if run. The journal gets the events from
+     * the checkpoint on, after a header at the resume time and the state the
+     * run carries over (see journalState()). in is not closed.
+     */
+    public static EventSimulation restore(InputStream in, Iterator<Arrival> arrivals, EventJournal journal)
+            throws IOException {
+        return restore(in, null, arrivals, journal);
+    }
+
+    /**
+     * Like restore(in, arrivals, journal), but carries on under config, or
+     * the checkpoint's own configuration if it is null. Separations and
+     * turnaround graphs may differ from the checkpointed run's and apply
+     * from the checkpoint on (a plane already at its gate finishes the
+     * graph it started); runways, trucks, refuel policy and ground capacity
+     * must match.
+     */
+    public static EventSimulation restore(InputStream in, AirportConfig config, Iterator<Arrival> arrivals,
+            EventJournal journal) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (data.readLong() != CHECKPOINT_MAGIC) {
+            throw new IOException("Not a simulation checkpoint");
+        }
+        short version = data.readShort();
+        if (version != CHECKPOINT_VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        int numGates = data.readUnsignedShort();
+        AirportConfig.Builder recorded = AirportConfig.builder()
+                .groundCapacity(data.readInt())
+                .runways(data.readUnsignedShort())
+                .separation(data.readLong(), data.readLong())
+                .refuelTrucks(data.readUnsignedShort())
+                .refuelPolicy(RefuelPolicy.values()[data.readUnsignedByte()]);
+        for (GateClass gateClass : GateClass.values()) {
+            recorded.turnaround(gateClass, TurnaroundGraph.fromBits(data.readUnsignedShort()));
+        }
+        AirportConfig checkpointed = recorded.build();
+        if (config == null) {
+            config = checkpointed;
+        } else if (config.getGroundCapacity() != checkpointed.getGroundCapacity()
+                || config.getRunways() != checkpointed.getRunways()
+                || config.getRefuelTrucks() != checkpointed.getRefuelTrucks()
+                || config.getRefuelPolicy() != checkpointed.getRefuelPolicy()) {
+            throw new IllegalArgumentException("Checkpoint was taken with ground capacity " +
+                    checkpointed.getGroundCapacity() + ", " + checkpointed.getRunways() + " runway(s) and " +
+                    checkpointed.getRefuelTrucks() + " " + checkpointed.getRefuelPolicy() + " refuel truck(s)");
+        }
+
+        EventSimulation simulation = new EventSimulation(numGates, config, journal, data.readLong());
+        simulation.clock.advanceTo(data.readLong());
+        simulation.nextSequence = data.readLong();
+        simulation.pendingSlot = data.readLong();
+        simulation.freeCapacity = data.readInt();
+        simulation.arrivalsStart = data.readLong();
+        simulation.arrivalsPulled = data.readLong();
+
+        SimPlane[] planes = new SimPlane[data.readInt()];
+        for (int i = 0; i < planes.length; i++) {
+            planes[i] = simulation.readPlane(data);
+        }
+        int streamed = data.readInt();
+        simulation.streamedArrival = streamed < 0 ? null : planes[streamed];
+        int pendingEvents = data.readInt();
+        for (int i = 0; i < pendingEvents; i++) {
+            long time = data.readLong();
+            long sequence = data.readLong();
+            EventType type = EVENT_TYPES[data.readUnsignedByte()];
+            int plane = data.readInt();
+            byte task = data.readByte();
+            simulation.events.add(new Event(time, sequence, type, plane < 0 ? null : planes[plane],
+                    task < 0 ? null : TASKS[task]));
+        }
+        simulation.landingQueue.readState(data, i -> planes[i]);
+        simulation.clearedArrivals.readState(data, i -> planes[i]);
+        int waiting = data.readInt();
+        for (int i = 0; i < waiting; i++) {
+            simulation.takeoffWaiters.add(planes[data.readInt()]);
+        }
+        simulation.refuelDispatcher.readState(data, i -> planes[i]);
+        simulation.runways.readState(data);
+        simulation.gates.readState(data);
+        simulation.stats.readState(data);
+        simulation.journal.begin(simulation.clock.now(), numGates, config);
+        simulation.journalState();
+
+        // Skip the arrivals that are already at the airport or scheduled
+        for (long i = 0; arrivals != null && i < simulation.arrivalsPulled && arrivals.hasNext(); i++) {
+            arrivals.next();
+        }
+        simulation.arrivals = arrivals;
+        return simulation;
+    }
+
+    // Opens a resumed run's journal as if the airport's state had been reached
+    // at the resume time: an arrival (at its real time) for every plane that
+    // is in the air or on the ground, then the grants the landed ones hold.
+    // JournalReplay stats and InvariantChecker need them to account for the
+    // departures that follow; rerun treats these planes as arriving at the
+    // resume time. A landed plane that is off the runway is cleared and
+    // released on runway 1, and one that has left its gate releases it, so
+    // those come before the planes still holding a runway or gate.
+    private void journalState() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        long now = clock.now();
+        Map<SimPlane, EventType> next = new IdentityHashMap<>();
+        Map<SimPlane, Boolean> refuelling = new IdentityHashMap<>();
+        for (Event event : events) {
+            if (event.plane != null) {
+                next.put(event.plane, event.type);
+                if (event.task == TurnaroundGraph.Task.REFUEL) {
+                    refuelling.put(event.plane, true);
+                }
+            }
+        }
+        List<SimPlane> landed = new ArrayList<>(takeoffWaiters);
+        next.forEach((plane, type) -> {
+            if (type != EventType.ARRIVAL) {
+                landed.add(plane);
+            }
+        });
+        refuelDispatcher.forEach(plane -> {
+            if (!next.containsKey(plane)) {
+                landed.add(plane);
+            }
+        });
+
+        Comparator<SimPlane> byArrival = Comparator.<SimPlane>comparingLong(plane -> plane.arrivalTime)
+                .thenComparingInt(plane -> plane.id);
+        List<SimPlane> arrived = new ArrayList<>(landed);
+        landingQueue.forEach(arrived::add);
+        clearedArrivals.forEach(arrived::add);
+        arrived.sort(byArrival);
+        for (SimPlane plane : arrived) {
+            journal.arrival(plane.arrivalTime, plane.id, plane.passengers, plane.emergency, plane.refuelTime);
+        }
+
+        // Off the gate first, then at the gate, then on the landing roll
+        Map<SimPlane, Integer> stage = new IdentityHashMap<>();
+        for (SimPlane plane : landed) {
+            EventType type = next.get(plane);
+            boolean offGate = type == EventType.AT_HOLDING_POINT || type == EventType.DEPARTED
+                    || (type == null && takeoffWaiters.contains(plane));
+            stage.put(plane, offGate ? 0 : type == EventType.RUNWAY_VACATED ? 2 : 1);
+        }
+        landed.sort(Comparator.<SimPlane>comparingInt(stage::get).thenComparing(byArrival));
+        for (SimPlane plane : landed) {
+            int planeStage = stage.get(plane);
+            int runway = planeStage == 2 ? runwayOf(plane) : 1;
+            journal.landingGranted(now, plane.id, runway, plane.gate.getId(), plane.waitTime);
+            if (planeStage != 2) {
+                journal.runwayReleased(now, plane.id, runway);
+            }
+            if (planeStage == 0) {
+                journal.gateReleased(now, plane.id, plane.gate.getId());
+            }
+        }
+        for (SimPlane plane : landed) {
+            if (refuelling.containsKey(plane)) {
+                journal.refuelGranted(now, plane.id, plane.truck);
+            }
+            if (next.get(plane) == EventType.DEPARTED) {
+                journal.takeoffGranted(now, plane.id, runwayOf(plane));
+            }
+        }
+    }
+
+    private int runwayOf(SimPlane plane) {
+        for (int runway = 1; runway <= runways.getRunways(); runway++) {
+            if (runways.occupant(runway) == plane.id) {
+                return runway;
+            }
+        }
+        return RunwaySequencer.NO_RUNWAY;
+    }
+
+    private SimPlane readPlane(DataInputStream data) throws IOException {
+        SimPlane plane = new SimPlane(data.readInt(), data.readInt(), data.readBoolean(), data.readLong(),
+                data.readLong());
+        plane.waitTime = data.readLong();
+        plane.landingTime = data.readLong();
+        plane.phaseStart = data.readLong();
+        int gate = data.readUnsignedShort();
+        plane.gate = gate == 0 ? null : gates.gate(gate);
+        plane.truck = data.readUnsignedShort();
+        if (data.readBoolean()) {
+            long bits = data.readUnsignedShort();
+            // Planes share the configured graph unless a fork changed it
+            TurnaroundGraph current = config.getTurnaround(plane.gate.getGateClass());
+            plane.turnaround = current.toBits() == bits ? current : TurnaroundGraph.fromBits(bits);
+            plane.timeline = new TurnaroundGraph.Timeline();
+            plane.timeline.readState(data);
+            plane.pending = new int[TASKS.length];
+            for (int i = 0; i < plane.pending.length; i++) {
+                plane.pending[i] = data.readByte();
+            }
+            plane.unfinished = data.readByte();
+            plane.docked = data.readLong();
+        }
+        return plane;
+    }
+
+    /**
+     * Runs the same traffic pattern as Main on a virtual clock.
+     * Usage: EventSimulation [planes] [seed]
+     *
+     * -Dairport.checkpoint=file with -Dairport.checkpoint.at=ms saves the
+     * state at that simulated time and carries on; -Dairport.resume=file
+     * starts from a saved state instead, with the same (or other) traffic.
+     */
+    public static void main(String[] args) throws IOException {
+        // Arguments override -Dairport.planes and -Dairport.seed
+        if (args.length > 0) {
+            System.setProperty("airport.planes", args[0]);
+        }
+        if (args.length > 1) {
+            System.setProperty("airport.seed", args[1]);
+        }
+        TrafficGenerator traffic = TrafficGenerator.fromSystemProperties();
+
+        System.out.println(Utils.threadInfo() + "Starting discrete-event simulation, seed " +
+                traffic.getSeed());
+
+        // -Dairport.journal records the run for JournalReplay
+        EventJournal journal = EventJournal.fromSystemProperties();
+        String resumeFrom = System.getProperty("airport.resume");
+        String checkpointTo = System.getProperty("airport.checkpoint");
+        EventSimulation simulation;
+        long started = System.nanoTime();
+        if (resumeFrom != null) {
+            try (InputStream in = Files.newInputStream(Path.of(resumeFrom))) {
+                simulation = restore(in, traffic, journal);
+            }
+            System.out.println(Utils.threadInfo() + "Resumed from " + resumeFrom + " at " +
+                    String.format("%.1f", simulation.getClock().now() / 1000.0) + " s in " +
+                    (System.nanoTime() - started) / 1_000_000 + " ms");
+            simulation.resume(Long.MAX_VALUE);
+        } else if (checkpointTo != null) {
+            simulation = new EventSimulation(3, AirportConfig.fromSystemProperties(), journal);
+            simulation.run(traffic, Long.getLong("airport.checkpoint.at", 0));
+            long saving = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(Path.of(checkpointTo))) {
+                simulation.checkpoint(out);
+            }
+            System.out.println(Utils.threadInfo() + "Checkpoint at " +
+                    String.format("%.1f", simulation.getClock().now() / 1000.0) + " s: " +
+                    Files.size(Path.of(checkpointTo)) + " bytes in " + (System.nanoTime() - saving) / 1_000_000 +
+                    " ms");
+            simulation.resume(Long.MAX_VALUE);
+        } else {
+            simulation = new EventSimulation(3, AirportConfig.fromSystemProperties(), journal);
+            simulation.run(traffic);
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Cannot close journal: " + e);
+        }
+
+        System.out.println(Utils.threadInfo() + "Simulated " +
+                String.format("%.1f", simulation.getClock().now() / 3_600_000.0) +
+                " hours in " + elapsedMs + " ms of wall-clock time");
+        System.out.println("\n========== STATISTICS ==========");
+        simulation.getStatistics().printStatistics();
+    }
+}
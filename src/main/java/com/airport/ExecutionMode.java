@@ -0,0 +1,256 @@
+package com.airport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides what kind of thread runs each plane and each ground crew task.
+ *
+ * PLATFORM starts one OS thread per plane (the original behaviour), VIRTUAL
+ * one virtual thread per plane and per crew task, and POOLED runs planes on
+ * a shared bounded pool. In PLATFORM and POOLED mode crew tasks run on one
+ * shared work-stealing ground pool, so a turnaround starts no threads. ASYNC
+ * holds no thread per plane at all: launchPlane(Plane, Airport) runs each
+ * plane as an AsyncPlane state machine stepped by a small shared
+ * scheduler. A blocking body handed to ASYNC (a Runnable plane or a crew
+ * task) gets a virtual thread instead, so it never ties up the scheduler
+ * and every mode accepts every call. Every mode keeps the task
+ * name visible to Utils.threadInfo(), so "[Refuel-P3]" is still printed by
+ * the refuel crew.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL,
+    POOLED,
+    ASYNC;
+
+    // Planes and crews get separate pools: a plane blocks while its crew
+    // works, so sharing one bounded pool could starve the crews.
+    private static ExecutorService planePool;
+    private static ForkJoinPool groundPool;
+    private static ScheduledExecutorService scheduler; // ASYNC mode
+
+    /**
+     * A crew task body; may sleep or wait on ATC.
+     */
+    @FunctionalInterface
+    interface CrewTask {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Reads the mode from the "airport.mode" system property (default PLATFORM).
+     */
+    public static ExecutionMode fromSystemProperty() {
+        String mode = System.getProperty("airport.mode", "platform");
+        return valueOf(mode.trim().toUpperCase());
+    }
+
+    /**
+     * Starts a plane's whole visit: an AsyncPlane on scheduler() in ASYNC
+     * mode, Plane.run() on a thread of this mode's kind otherwise. The
+     * future completes once the plane has departed, or exceptionally if it
+     * failed.
+     */
+    public CompletableFuture<Void> launchPlane(Plane plane, Airport airport) {
+        if (this == ASYNC) {
+            return new AsyncPlane(plane, airport, scheduler()).start();
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        launchPlane("PLANE-" + plane.getId(), () -> {
+            try {
+                plane.run();
+                done.complete(null);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Runs a blocking plane body on a thread of this mode's kind; ASYNC
+     * gives it a virtual thread.
+     */
+    public Future<?> launchPlane(String name, Runnable task) {
+        switch (this) {
+            case VIRTUAL:
+            case ASYNC: {
+                FutureTask<Void> future = new FutureTask<>(task, null);
+                Thread.ofVirtual().name(name).start(future);
+                return future;
+            }
+            case POOLED:
+                return planePool().submit(named(name, task));
+            default: {
+                FutureTask<Void> future = new FutureTask<>(task, null);
+                new Thread(future, name).start();
+                return future;
+            }
+        }
+    }
+
+    /**
+     * Starts a ground crew task of a turnaround graph; the future completes
+     * when it is done. VIRTUAL and ASYNC (whose own crews run on timers, see
+     * AsyncPlane) give the task a virtual thread. Otherwise it
+     * runs on the shared ground pool as a managed block, so while it sleeps
+     * or waits on ATC the pool brings in a spare worker instead of stalling
+     * the other crews.
+     */
+    CompletableFuture<Void> runCrew(String name, CrewTask task) {
+        switch (this) {
+            case VIRTUAL:
+            case ASYNC: {
+                CompletableFuture<Void> done = new CompletableFuture<>();
+                Thread.ofVirtual().name(name).start(() -> {
+                    try {
+                        task.run();
+                        done.complete(null);
+                    } catch (Throwable e) {
+                        done.completeExceptionally(e);
+                    }
+                });
+                return done;
+            }
+            default:
+                return CompletableFuture.runAsync(named(name, () -> managedBlock(task)), groundPool());
+        }
+    }
+
+    private static void managedBlock(CrewTask task) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean done;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    task.run();
+                    done = true;
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return done;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Waits for a launched task, rethrowing anything it failed with.
+     */
+    public static void await(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Stops the shared pools once the simulation is over (no-op for other modes).
+     */
+    public static synchronized void shutdownPools() {
+        if (planePool != null) {
+            planePool.shutdown();
+            planePool = null;
+        }
+        if (groundPool != null) {
+            groundPool.shutdown();
+            groundPool = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    // Pool threads take the task's name while running it, so log lines keep
+    // the same attribution as in the thread-per-task modes.
+    static Runnable named(String name, Runnable task) {
+        return () -> {
+            Thread current = Thread.currentThread();
+            String poolName = current.getName();
+            current.setName(name);
+            try {
+                task.run();
+            } finally {
+                current.setName(poolName);
+            }
+        };
+    }
+
+    private static synchronized ExecutorService planePool() {
+        if (planePool == null) {
+            planePool = Executors.newFixedThreadPool(poolSize("airport.pool.planes"), daemonFactory("PlanePool-"));
+        }
+        return planePool;
+    }
+
+    /**
+     * Work-stealing pool shared by every plane's ground crews; its target
+     * parallelism comes from "airport.pool.ground" (default one per CPU).
+     * Blocked crews are compensated for, so it grows only to the number of
+     * crews actually busy at once, and reuses those threads.
+     */
+    static synchronized ForkJoinPool groundPool() {
+        if (groundPool == null) {
+            int parallelism = Integer.getInteger("airport.pool.ground", Runtime.getRuntime().availableProcessors());
+            AtomicInteger counter = new AtomicInteger();
+            groundPool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("GroundPool-" + counter.incrementAndGet());
+                return thread;
+            }, null, false);
+        }
+        return groundPool;
+    }
+
+    /**
+     * Shared scheduler that steps every AsyncPlane; its size comes from
+     * "airport.pool.async" (default one thread per CPU).
+     */
+    static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            int size = Integer.getInteger("airport.pool.async", Runtime.getRuntime().availableProcessors());
+            scheduler = Executors.newScheduledThreadPool(size, daemonFactory("AsyncPool-"));
+        }
+        return scheduler;
+    }
+
+    private static int poolSize(String property) {
+        int defaultSize = Runtime.getRuntime().availableProcessors() * 4;
+        return Integer.getInteger(property, defaultSize);
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.airport;
+
+/**
+ * Stages of a plane's visit, in order. Each is timed from the end of the
+ * previous one.
+ */
+public enum FlightPhase {
+    HOLDING("Holding for landing clearance"),
+    LANDING("Landing"),
+    TAXI_TO_GATE("Taxi to gate"),
+    DOCKING("Docking"),
+    GROUND_SERVICE("Disembark and cleaning"),
+    REFUEL_WAIT("Waiting for refuel truck"),
+    REFUELING("Refueling"),
+    BOARDING("Boarding"),
+    UNDOCKING("Undocking"),
+    TAXI_TO_RUNWAY("Taxi to runway"),
+    TAKEOFF_WAIT("Waiting for takeoff runway"),
+    TAKEOFF("Takeoff"),
+    TURNAROUND("Total time on the ground"); // Landing clearance to departure
+
+    private final String label;
+
+    FlightPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
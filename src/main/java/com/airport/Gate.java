@@ -0,0 +1,34 @@
+package com.airport;
+
+public class Gate {
+    private final int id;
+    private final GateClass gateClass;
+    private volatile boolean occupied;
+
+    public Gate(int id) {
+        this(id, GateClass.NORMAL);
+    }
+
+    public Gate(int id, GateClass gateClass) {
+        this.id = id;
+        this.gateClass = gateClass;
+        this.occupied = false;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public GateClass getGateClass() {
+        return gateClass;
+    }
+
+    // Written only by the GateAllocator owner; volatile so others can read it
+    public boolean isOccupied() {
+        return occupied;
+    }
+
+    void setOccupied(boolean occupied) {
+        this.occupied = occupied;
+    }
+}
@@ -0,0 +1,176 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Tracks free gates per GateClass with one array-backed free list (a stack
+ * of gate indices) per class.
+ *
+ * allocate and release are O(1) whatever the number of gates. The
+ * allocator is owned by a single thread (the ground ATC controller, or the event loop)
+ * and takes no locks. Planes hand gates back through the ATC, never by
+ * touching a Gate directly.
+ */
+public class GateAllocator {
+    private final Gate[] gates;
+    private final int[][] freeLists; // Per class: stack of indices into gates
+    private final int[] freeCounts;
+
+    /**
+     * Gates are numbered from 1: normal gates first, then wide-body, then
+     * emergency (so with 2 + 0 + 1 the emergency gate is Gate 3).
+     */
+    public GateAllocator(int normalGates, int wideBodyGates, int emergencyGates) {
+        if (normalGates < 0 || wideBodyGates < 0 || emergencyGates < 0) {
+            throw new IllegalArgumentException("Gate counts must not be negative");
+        }
+        this.gates = new Gate[normalGates + wideBodyGates + emergencyGates];
+        this.freeLists = new int[GateClass.values().length][];
+        this.freeCounts = new int[GateClass.values().length];
+        freeLists[GateClass.NORMAL.ordinal()] = new int[normalGates];
+        freeLists[GateClass.WIDE_BODY.ordinal()] = new int[wideBodyGates];
+        freeLists[GateClass.EMERGENCY.ordinal()] = new int[emergencyGates];
+
+        int next = 0;
+        next = addGates(GateClass.NORMAL, normalGates, next);
+        next = addGates(GateClass.WIDE_BODY, wideBodyGates, next);
+        addGates(GateClass.EMERGENCY, emergencyGates, next);
+    }
+
+    private int addGates(GateClass gateClass, int count, int first) {
+        for (int i = 0; i < count; i++) {
+            gates[first + i] = new Gate(first + i + 1, gateClass);
+        }
+        // Push in reverse so the lowest-numbered gate is handed out first
+        for (int i = count - 1; i >= 0; i--) {
+            push(gateClass, first + i);
+        }
+        return first + count;
+    }
+
+    /**
+     * Takes a free gate of the first class in preference order that has one,
+     * or returns null if none of those classes has a free gate.
+     */
+    public Gate allocate(GateClass... preference) {
+        for (GateClass gateClass : preference) {
+            Gate gate = take(gateClass);
+            if (gate != null) {
+                return gate;
+            }
+        }
+        return null;
+    }
+
+    // Fixed-arity forms of allocate(GateClass...), so ATC's calls build no array
+
+    public Gate allocate(GateClass gateClass) {
+        return take(gateClass);
+    }
+
+    public Gate allocate(GateClass first, GateClass second) {
+        Gate gate = take(first);
+        return gate != null ? gate : take(second);
+    }
+
+    public Gate allocate(GateClass first, GateClass second, GateClass third) {
+        Gate gate = take(first);
+        if (gate == null) {
+            gate = take(second);
+        }
+        return gate != null ? gate : take(third);
+    }
+
+    private Gate take(GateClass gateClass) {
+        int c = gateClass.ordinal();
+        if (freeCounts[c] == 0) {
+            return null;
+        }
+        Gate gate = gates[freeLists[c][--freeCounts[c]]];
+        gate.setOccupied(true);
+        return gate;
+    }
+
+    /**
+     * Returns a gate to its class's free list.
+     */
+    public void release(Gate gate) {
+        int index = gate.getId() - 1;
+        if (index < 0 || index >= gates.length || gates[index] != gate) {
+            throw new IllegalArgumentException("Gate " + gate.getId() + " does not belong to this allocator");
+        }
+        if (!gate.isOccupied()) {
+            throw new IllegalStateException("Gate " + gate.getId() + " released twice");
+        }
+        gate.setOccupied(false);
+        push(gate.getGateClass(), index);
+    }
+
+    private void push(GateClass gateClass, int index) {
+        int c = gateClass.ordinal();
+        freeLists[c][freeCounts[c]++] = index;
+    }
+
+    /**
+     * Writes each class's free list, in order, for an EventSimulation
+     * checkpoint; every other gate is occupied.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeShort(gates.length);
+        for (int c = 0; c < freeLists.length; c++) {
+            out.writeShort(freeCounts[c]);
+            for (int i = 0; i < freeCounts[c]; i++) {
+                out.writeShort(freeLists[c][i]);
+            }
+        }
+    }
+
+    /**
+     * Restores what writeState() wrote into an allocator with the same layout.
+     */
+    void readState(DataInput in) throws IOException {
+        int size = in.readUnsignedShort();
+        if (size != gates.length) {
+            throw new IOException("Checkpoint has " + size + " gates, this airport " + gates.length);
+        }
+        for (Gate gate : gates) {
+            gate.setOccupied(true);
+        }
+        for (int c = 0; c < freeLists.length; c++) {
+            int free = in.readUnsignedShort();
+            if (free > freeLists[c].length) {
+                throw new IOException("Checkpoint has " + free + " free " + GateClass.values()[c] + " gates");
+            }
+            freeCounts[c] = free;
+            for (int i = 0; i < free; i++) {
+                int index = in.readUnsignedShort();
+                if (index >= gates.length || gates[index].getGateClass().ordinal() != c) {
+                    throw new IOException("Gate " + (index + 1) + " is not a " + GateClass.values()[c] + " gate");
+                }
+                freeLists[c][i] = index;
+                gates[index].setOccupied(false);
+            }
+        }
+    }
+
+    /**
+     * The gate with this id (from 1).
+     */
+    Gate gate(int id) {
+        return gates[id - 1];
+    }
+
+    public int freeCount(GateClass gateClass) {
+        return freeCounts[gateClass.ordinal()];
+    }
+
+    public int size() {
+        return gates.length;
+    }
+
+    public Gate[] getGates() {
+        return gates.clone();
+    }
+}
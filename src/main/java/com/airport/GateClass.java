@@ -0,0 +1,11 @@
+package com.airport;
+
+/**
+ * Kind of stand a gate offers. The allocator keeps a separate free list
+ * per class.
+ */
+public enum GateClass {
+    NORMAL,
+    WIDE_BODY,
+    EMERGENCY // Reserved for aircraft declaring an emergency
+}
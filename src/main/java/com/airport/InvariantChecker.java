@@ -0,0 +1,250 @@
+package com.airport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays an Airport's journal and checks the safety rules ATC must keep at
+ * every step, for SoakHarness:
+ * - no more planes on the ground than the ground capacity;
+ * - at most one plane on each runway;
+ * - no gate or refuel truck handed to a second plane;
+ * - normal planes never at an emergency gate;
+ * - every plane that arrived has departed (finish()).
+ *
+ * Journal order is a safe order to check in. Each resource has one owning
+ * controller, which journals a release before it can hand the resource out
+ * again, and a gate is reserved by the ground controller before the runway
+ * controller journals the landing it goes with. A plane counts as on the
+ * ground from its landing clearance until its departure is recorded.
+ */
+final class InvariantChecker {
+    private static final int FREE = RunwaySequencer.NO_PLANE;
+
+    /**
+     * A broken rule: what happened, the journal record that broke it and
+     * the planes involved.
+     */
+    static final class Violation {
+        private final String message;
+        private final long index;
+        private final Set<Integer> planes;
+
+        Violation(String message, long index, Set<Integer> planes) {
+            this.message = message;
+            this.index = index;
+            this.planes = planes;
+        }
+
+        String getMessage() {
+            return message;
+        }
+
+        /**
+         * Position in the journal of the record that broke the rule.
+         */
+        long getIndex() {
+            return index;
+        }
+
+        Set<Integer> getPlanes() {
+            return planes;
+        }
+
+        @Override
+        public String toString() {
+            return message + " (journal record " + index + ")";
+        }
+    }
+
+    private final int groundCapacity;
+    private final GateClass[] gateClasses; // By gate id - 1
+    private final int[] runwayOccupants; // By runway - 1
+    private final int[] gateHolders; // By gate id - 1
+    private final int[] truckHolders; // By truck - 1
+    private final Map<Integer, Boolean> inFlight = new HashMap<>(); // Arrived, not departed: whether emergency
+    private final Set<Integer> onGround = new LinkedHashSet<>();
+    private long index = -1; // Of the last record checked
+    private long departures;
+
+    InvariantChecker(int groundCapacity, int runways, int refuelTrucks, GateClass[] gateClasses) {
+        this.groundCapacity = groundCapacity;
+        this.gateClasses = gateClasses.clone();
+        this.runwayOccupants = free(runways);
+        this.gateHolders = free(gateClasses.length);
+        this.truckHolders = free(refuelTrucks);
+    }
+
+    /**
+     * A checker for the given airport's configuration and gate layout.
+     */
+    static InvariantChecker of(AirportConfig config, GateAllocator gates) {
+        Gate[] layout = gates.getGates();
+        GateClass[] classes = new GateClass[layout.length];
+        for (Gate gate : layout) {
+            classes[gate.getId() - 1] = gate.getGateClass();
+        }
+        return new InvariantChecker(config.getGroundCapacity(), config.getRunways(), config.getRefuelTrucks(),
+                classes);
+    }
+
+    private static int[] free(int size) {
+        int[] holders = new int[size];
+        Arrays.fill(holders, FREE);
+        return holders;
+    }
+
+    /**
+     * Applies the next journal record; returns the rule it breaks, or null.
+     */
+    Violation check(EventJournal.Record record) {
+        index++;
+        int plane = record.getPlaneId();
+        switch (record.getKind()) {
+            case ARRIVAL:
+                inFlight.put(plane, record.getCode() == 1);
+                return null;
+            case LANDING_GRANTED: {
+                Violation violation = take(runwayOccupants, record.getA(), plane, "Runway");
+                if (violation != null) {
+                    return violation;
+                }
+                int gate = record.getB();
+                violation = take(gateHolders, gate, plane, "Gate");
+                if (violation != null) {
+                    return violation;
+                }
+                if (gateClasses[gate - 1] == GateClass.EMERGENCY && !inFlight.getOrDefault(plane, false)) {
+                    return violation("Normal plane " + plane + " cleared to emergency Gate " + gate, plane);
+                }
+                onGround.add(plane);
+                if (onGround.size() > groundCapacity) {
+                    return new Violation(onGround.size() + " planes on the ground, capacity " + groundCapacity,
+                            index, new LinkedHashSet<>(onGround));
+                }
+                return null;
+            }
+            case TAKEOFF_GRANTED:
+                return take(runwayOccupants, record.getA(), plane, "Runway");
+            case RUNWAY_RELEASED:
+                return give(runwayOccupants, record.getA(), plane, "runway");
+            case REFUEL_GRANTED:
+                return take(truckHolders, record.getA(), plane, "Refuel truck");
+            case REFUEL_RELEASED:
+                return give(truckHolders, record.getA(), plane, "refuel truck");
+            case GATE_RELEASED:
+                return give(gateHolders, record.getA(), plane, "Gate");
+            case DEPARTED:
+                departures++;
+                if (inFlight.remove(plane) == null || !onGround.remove(plane)) {
+                    return violation("Plane " + plane + " departed without having landed", plane);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    // Hands resource number `number` (from 1) to the plane, if it is free
+    private Violation take(int[] holders, int number, int plane, String resource) {
+        int holder = holders[number - 1];
+        if (holder != FREE) {
+            return violation(resource + " " + number + " handed to Plane " + plane + " while held by Plane " +
+                    holder, plane, holder);
+        }
+        holders[number - 1] = plane;
+        return null;
+    }
+
+    private Violation give(int[] holders, int number, int plane, String resource) {
+        int holder = holders[number - 1];
+        if (holder != plane) {
+            return violation("Plane " + plane + " released " + resource + " " + number + " held by " +
+                    (holder == FREE ? "nobody" : "Plane " + holder), plane);
+        }
+        holders[number - 1] = FREE;
+        return null;
+    }
+
+    private Violation violation(String message, int... planes) {
+        Set<Integer> involved = new LinkedHashSet<>();
+        for (int plane : planes) {
+            if (plane != FREE) {
+                involved.add(plane);
+            }
+        }
+        return new Violation(message, index, involved);
+    }
+
+    /**
+     * Checks the end of a run: every plane that arrived has departed.
+     */
+    Violation finish() {
+        if (inFlight.isEmpty()) {
+            return null;
+        }
+        List<Integer> stuck = new ArrayList<>(inFlight.keySet());
+        Collections.sort(stuck);
+        List<Integer> shown = stuck.subList(0, Math.min(3, stuck.size()));
+        return new Violation(stuck.size() + " plane(s) never departed, e.g. " + shown, index,
+                new LinkedHashSet<>(shown));
+    }
+
+    long getDepartures() {
+        return departures;
+    }
+
+    /**
+     * Checks a whole journal, ending with finish(); returns the first rule
+     * broken, or null.
+     */
+    Violation verify(Path journal) throws IOException {
+        try (JournalReader reader = JournalReader.open(journal)) {
+            while (reader.hasNext()) {
+                Violation violation = check(reader.next());
+                if (violation != null) {
+                    return violation;
+                }
+            }
+        }
+        return finish();
+    }
+
+    /**
+     * The smallest part of the journal that shows the violation: the airport
+     * configuration, then every ATC decision about the planes involved, up
+     * to and including the record that broke the rule. Phase timings are
+     * left out.
+     */
+    static List<EventJournal.Record> trace(Path journal, Violation violation) throws IOException {
+        List<EventJournal.Record> trace = new ArrayList<>();
+        try (JournalReader reader = JournalReader.open(journal)) {
+            for (long i = 0; i <= violation.getIndex() && reader.hasNext(); i++) {
+                EventJournal.Record record = reader.next();
+                switch (record.getKind()) {
+                    case CONFIG:
+                    case SEPARATION:
+                        trace.add(record);
+                        break;
+                    case HEADER:
+                    case PHASE:
+                        break;
+                    default:
+                        if (violation.getPlanes().contains(record.getPlaneId())) {
+                            trace.add(record);
+                        }
+                        break;
+                }
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,104 @@
+package com.airport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads an EventJournal file record by record, mapping one segment at a
+ * time. Stops at the end of the file or at the first unwritten record, so a
+ * journal cut short by a crash reads up to its last complete record.
+ */
+public final class JournalReader implements Iterator<EventJournal.Record>, Closeable {
+    private static final EventJournal.Kind[] KINDS = EventJournal.Kind.values();
+
+    private final FileChannel channel;
+    private final long records;
+    private long index;
+    private int segmentIndex = -1;
+    private MappedByteBuffer segment;
+
+    private JournalReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.records = channel.size() / EventJournal.RECORD_SIZE;
+    }
+
+    /**
+     * Opens the journal and checks its header.
+     */
+    public static JournalReader open(Path path) throws IOException {
+        JournalReader reader = new JournalReader(FileChannel.open(path, StandardOpenOption.READ));
+        if (!reader.hasNext()) {
+            reader.close();
+            throw new IOException(path + " is empty");
+        }
+        EventJournal.Record header = reader.next();
+        if (header.getKind() != EventJournal.Kind.HEADER || header.getValue() != EventJournal.MAGIC) {
+            reader.close();
+            throw new IOException(path + " is not an airport journal");
+        }
+        if (header.getCode() != EventJournal.VERSION || header.getA() != EventJournal.RECORD_SIZE) {
+            reader.close();
+            throw new IOException(path + " has unsupported journal version " + header.getCode());
+        }
+        reader.index = 0; // The header is returned again by the first next()
+        return reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < records && kindAt(index) != 0;
+    }
+
+    @Override
+    public EventJournal.Record next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int offset = offset(index++);
+        return new EventJournal.Record(KINDS[segment.getShort(offset + EventJournal.KIND) - 1],
+                segment.getLong(offset + EventJournal.TIME),
+                segment.getInt(offset + EventJournal.PLANE),
+                segment.getShort(offset + EventJournal.CODE),
+                segment.getInt(offset + EventJournal.A),
+                segment.getInt(offset + EventJournal.B),
+                segment.getLong(offset + EventJournal.VALUE));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private short kindAt(long recordIndex) {
+        return segment(recordIndex).getShort(offset(recordIndex) + EventJournal.KIND);
+    }
+
+    private int offset(long recordIndex) {
+        segment(recordIndex);
+        return (int) (recordIndex % EventJournal.SEGMENT_RECORDS) * EventJournal.RECORD_SIZE;
+    }
+
+    private MappedByteBuffer segment(long recordIndex) {
+        int wanted = (int) (recordIndex / EventJournal.SEGMENT_RECORDS);
+        if (wanted != segmentIndex) {
+            long start = wanted * EventJournal.SEGMENT_BYTES;
+            long length = Math.min(EventJournal.SEGMENT_BYTES, records * EventJournal.RECORD_SIZE - start);
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segmentIndex = wanted;
+        }
+        return segment;
+    }
+}
@@ -0,0 +1,269 @@
+package com.airport;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tools for EventJournal files.
+ *
+ * <pre>
+ *   dump  journal            print every record
+ *   stats journal            rebuild the run's report from the journal alone
+ *   rerun journal [out]      run the journal's traffic and airport again on the
+ *                            discrete-event engine, optionally journaling it
+ *   diff  journal other      compare two journals record by record
+ * </pre>
+ * An EventSimulation journal reruns to an identical journal, so rerun + diff
+ * is a regression check: any change in ATC decisions shows up as the first
+ * diverging record. A threaded run's journal reruns as the deterministic
+ * version of the same traffic.
+ */
+public class JournalReplay {
+
+    /**
+     * The airport a journal was recorded on, and its arrivals in time order.
+     */
+    static final class Run {
+        final int gates;
+        final AirportConfig config;
+        final List<Arrival> arrivals;
+
+        Run(int gates, AirportConfig config, List<Arrival> arrivals) {
+            this.gates = gates;
+            this.config = config;
+            this.arrivals = arrivals;
+        }
+    }
+
+    static Run load(Path path) throws IOException {
+        int gates = 0;
+        long start = 0;
+        AirportConfig.Builder config = AirportConfig.builder();
+        List<Arrival> arrivals = new ArrayList<>();
+        try (JournalReader reader = JournalReader.open(path)) {
+            while (reader.hasNext()) {
+                EventJournal.Record record = reader.next();
+                switch (record.getKind()) {
+                    case HEADER:
+                        start = record.getTime();
+                        break;
+                    case CONFIG:
+                        gates = record.getPlaneId();
+                        config.groundCapacity((int) record.getValue())
+                                .runways(record.getA())
+                                .refuelTrucks(record.getB())
+                                .refuelPolicy(RefuelPolicy.values()[record.getCode()]);
+                        break;
+                    case SEPARATION:
+                        config.separation(record.getA(), record.getB());
+                        if (record.getValue() != 0) {
+                            for (GateClass gateClass : GateClass.values()) {
+                                config.turnaround(gateClass, turnaround(record.getValue(), gateClass));
+                            }
+                        }
+                        break;
+                    case ARRIVAL:
+                        arrivals.add(new Arrival(record.getPlaneId(), record.getTime() - start,
+                                record.getA(), record.getCode() == 1, record.getValue()));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        // A threaded run journals arrivals as ATC sees them, not strictly in time order
+        arrivals.sort(Comparator.comparingLong(Arrival::getTime).thenComparingInt(Arrival::getPlaneId));
+        return new Run(gates, config.build(), arrivals);
+    }
+
+    // Turnaround graph of one gate class from a SEPARATION record's value
+    private static TurnaroundGraph turnaround(long bits, GateClass gateClass) {
+        return TurnaroundGraph.fromBits(bits >>> (16 * gateClass.ordinal()) & 0xFFFF);
+    }
+
+    // E.g. "NORMAL standard, WIDE_BODY overlapped, EMERGENCY standard"
+    static String turnarounds(long bits) {
+        StringBuilder out = new StringBuilder();
+        for (GateClass gateClass : GateClass.values()) {
+            out.append(out.length() == 0 ? "" : ", ").append(gateClass).append(' ')
+                    .append(turnaround(bits, gateClass));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Replays the journal's phases, departures and resource grants into a
+     * fresh Statistics, so its report matches the recorded run's.
+     */
+    static Statistics rebuildStatistics(Path path) throws IOException {
+        try (JournalReader reader = JournalReader.open(path)) {
+            EventJournal.Record header = reader.next();
+            VirtualClock clock = new VirtualClock(header.getTime());
+            Statistics stats = new Statistics(clock);
+            ResourceMeter[] runwayMeters = new ResourceMeter[0];
+            ResourceMeter[] truckMeters = new ResourceMeter[0];
+            ResourceMeter[] gateMeters = new ResourceMeter[0];
+            ResourceMeter ground = null;
+            while (reader.hasNext()) {
+                EventJournal.Record record = reader.next();
+                long now = Math.max(clock.now(), record.getTime());
+                switch (record.getKind()) {
+                    case CONFIG:
+                        runwayMeters = meters(stats, record.getA() > 1 ? "Runways" : "Runway", "Runway",
+                                record.getA());
+                        truckMeters = meters(stats, "Refuel trucks", "Refuel truck", record.getB());
+                        ground = stats.newMeter("Ground capacity", (int) record.getValue());
+                        gateMeters = new ResourceMeter[record.getPlaneId()];
+                        for (int i = 0; i < gateMeters.length; i++) {
+                            gateMeters[i] = stats.newMeter("Gate " + (i + 1), 1);
+                        }
+                        break;
+                    case LANDING_GRANTED:
+                        acquire(runwayMeters, record.getA(), now);
+                        gateMeters[record.getB() - 1].acquire(now);
+                        ground.acquire(now);
+                        break;
+                    case TAKEOFF_GRANTED:
+                        acquire(runwayMeters, record.getA(), now);
+                        break;
+                    case RUNWAY_RELEASED:
+                        release(runwayMeters, record.getA(), now);
+                        break;
+                    case REFUEL_GRANTED:
+                        acquire(truckMeters, record.getA(), now);
+                        break;
+                    case REFUEL_RELEASED:
+                        release(truckMeters, record.getA(), now);
+                        break;
+                    case GATE_RELEASED:
+                        gateMeters[record.getA() - 1].release(now);
+                        break;
+                    case DEPARTED:
+                        ground.release(now);
+                        clock.advanceTo(now);
+                        stats.recordPlane(record.getA(), record.getValue());
+                        break;
+                    case PHASE:
+                        stats.recordPhase(FlightPhase.values()[record.getCode()], record.getValue());
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return stats;
+        }
+    }
+
+    // Fleet meter first, then one per unit when there is more than one, as Airport does
+    private static ResourceMeter[] meters(Statistics stats, String fleetName, String unitName, int units) {
+        ResourceMeter[] meters = new ResourceMeter[units > 1 ? units + 1 : 1];
+        meters[0] = stats.newMeter(fleetName, units);
+        for (int i = 1; i < meters.length; i++) {
+            meters[i] = stats.newMeter(unitName + " " + i, 1);
+        }
+        return meters;
+    }
+
+    private static void acquire(ResourceMeter[] meters, int unit, long now) {
+        meters[0].acquire(now);
+        if (meters.length > 1) {
+            meters[unit].acquire(now);
+        }
+    }
+
+    private static void release(ResourceMeter[] meters, int unit, long now) {
+        meters[0].release(now);
+        if (meters.length > 1) {
+            meters[unit].release(now);
+        }
+    }
+
+    /**
+     * Index of the first record where the journals differ, or -1 if they are
+     * identical. Per-kind counts of each journal are added to the maps.
+     */
+    static long diff(Path left, Path right, Map<EventJournal.Kind, Long> leftCounts,
+                     Map<EventJournal.Kind, Long> rightCounts, PrintStream out) throws IOException {
+        long firstDifference = -1;
+        long index = 0;
+        try (JournalReader a = JournalReader.open(left); JournalReader b = JournalReader.open(right)) {
+            while (a.hasNext() || b.hasNext()) {
+                EventJournal.Record x = a.hasNext() ? a.next() : null;
+                EventJournal.Record y = b.hasNext() ? b.next() : null;
+                if (x != null) {
+                    leftCounts.merge(x.getKind(), 1L, Long::sum);
+                }
+                if (y != null) {
+                    rightCounts.merge(y.getKind(), 1L, Long::sum);
+                }
+                if (firstDifference < 0 && (x == null || !x.equals(y))) {
+                    firstDifference = index;
+                    out.println("First difference at record " + index + ":");
+                    out.println("  < " + (x == null ? "(end of journal)" : x));
+                    out.println("  > " + (y == null ? "(end of journal)" : y));
+                }
+                index++;
+            }
+        }
+        return firstDifference;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JournalReplay dump|stats|rerun|diff <journal> [<out>|<other journal>]");
+            System.exit(2);
+        }
+        Path journal = Path.of(args[1]);
+        switch (args[0]) {
+            case "dump":
+                try (JournalReader reader = JournalReader.open(journal)) {
+                    while (reader.hasNext()) {
+                        System.out.println(reader.next());
+                    }
+                }
+                break;
+            case "stats":
+                System.out.println("========== STATISTICS (from " + journal + ") ==========");
+                rebuildStatistics(journal).printStatistics();
+                break;
+            case "rerun": {
+                Run run = load(journal);
+                EventJournal out = args.length > 2 ? EventJournal.open(Path.of(args[2])) : EventJournal.DISABLED;
+                EventSimulation simulation = new EventSimulation(run.gates, run.config, out);
+                simulation.run(run.arrivals.iterator());
+                out.close();
+                System.out.println(Utils.threadInfo() + "Reran " + run.arrivals.size() + " arrivals from " + journal +
+                        (out.isEnabled() ? " into " + args[2] : ""));
+                System.out.println("\n========== STATISTICS ==========");
+                simulation.getStatistics().printStatistics();
+                break;
+            }
+            case "diff": {
+                if (args.length < 3) {
+                    System.err.println("diff needs two journals");
+                    System.exit(2);
+                }
+                Map<EventJournal.Kind, Long> leftCounts = new EnumMap<>(EventJournal.Kind.class);
+                Map<EventJournal.Kind, Long> rightCounts = new EnumMap<>(EventJournal.Kind.class);
+                long first = diff(journal, Path.of(args[2]), leftCounts, rightCounts, System.out);
+                System.out.println(String.format("%-16s %12s %12s", "Record", "Left", "Right"));
+                for (EventJournal.Kind kind : EventJournal.Kind.values()) {
+                    System.out.println(String.format("%-16s %12d %12d", kind,
+                            leftCounts.getOrDefault(kind, 0L), rightCounts.getOrDefault(kind, 0L)));
+                }
+                System.out.println(first < 0 ? "Journals are identical" : "Journals differ");
+                System.exit(first < 0 ? 0 : 1);
+                break;
+            }
+            default:
+                System.err.println("Unknown command: " + args[0]);
+                System.exit(2);
+        }
+    }
+}
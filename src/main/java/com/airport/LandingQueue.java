@@ -0,0 +1,330 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Priority queue of planes waiting to land, indexed by plane id.
+ *
+ * Ordering: emergencies first, FIFO among equals, with aging. A plane's rank
+ * is its enqueue time, and a normal plane's rank is pushed back by the aging
+ * window. So a normal plane that has held for longer than the window ranks
+ * ahead of a newly arrived emergency, and no one holds forever behind a
+ * stream of emergencies. Ranks never change after insertion, so the heap
+ * stays valid without periodic re-sorting.
+ *
+ * add, poll and remove are O(log n); contains, peek and lookup by id are
+ * O(1). The id index is an open-addressing int table, so no ids are boxed.
+ * Not thread-safe: owned by one ATC controller (or the event loop).
+ */
+public class LandingQueue<T> {
+    private static final int EMPTY = -1;
+
+    private final long agingWindowMs;
+    private long nextSequence;
+    private int size;
+    private int emergencies;
+
+    // Heap, stored as parallel arrays
+    private Object[] items;
+    private int[] ids;
+    private long[] ranks;
+    private long[] sequences;
+    private boolean[] emergencyFlags;
+
+    // Plane id -> heap slot; linear probing with backward-shift deletion
+    private int[] indexKeys;
+    private int[] indexSlots;
+
+    public LandingQueue(long agingWindowMs) {
+        if (agingWindowMs < 0) {
+            throw new IllegalArgumentException("Aging window must not be negative: " + agingWindowMs);
+        }
+        this.agingWindowMs = agingWindowMs;
+        this.items = new Object[16];
+        this.ids = new int[16];
+        this.ranks = new long[16];
+        this.sequences = new long[16];
+        this.emergencyFlags = new boolean[16];
+        this.indexKeys = new int[32];
+        this.indexSlots = new int[32];
+        Arrays.fill(indexSlots, EMPTY);
+    }
+
+    /**
+     * Adds a plane; returns false if a plane with this id is already queued.
+     */
+    public boolean add(int id, T item, boolean emergency, long now) {
+        if (contains(id)) {
+            return false;
+        }
+        if (size == items.length) {
+            grow();
+        }
+        int slot = size++;
+        items[slot] = item;
+        ids[slot] = id;
+        ranks[slot] = emergency ? now : saturatedAdd(now, agingWindowMs);
+        sequences[slot] = nextSequence++;
+        emergencyFlags[slot] = emergency;
+        if (emergency) {
+            emergencies++;
+        }
+        indexPut(id, slot);
+        siftUp(slot);
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return indexGet(id) != EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        int slot = indexGet(id);
+        return slot == EMPTY ? null : (T) items[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return size == 0 ? null : (T) items[0];
+    }
+
+    public T poll() {
+        return size == 0 ? null : removeAt(0);
+    }
+
+    /**
+     * Removes the plane with this id; returns it, or null if it was not queued.
+     */
+    public T remove(int id) {
+        int slot = indexGet(id);
+        return slot == EMPTY ? null : removeAt(slot);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int emergencyCount() {
+        return emergencies;
+    }
+
+    /**
+     * Visits every queued plane in heap order.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super T> action) {
+        for (int slot = 0; slot < size; slot++) {
+            action.accept((T) items[slot]);
+        }
+    }
+
+    /**
+     * Writes the heap, slot by slot, for an EventSimulation checkpoint; each
+     * plane is written as the number refs gives it.
+     */
+    @SuppressWarnings("unchecked")
+    void writeState(DataOutput out, ToIntFunction<? super T> refs) throws IOException {
+        out.writeLong(nextSequence);
+        out.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            out.writeInt(refs.applyAsInt((T) items[slot]));
+            out.writeInt(ids[slot]);
+            out.writeLong(ranks[slot]);
+            out.writeLong(sequences[slot]);
+            out.writeBoolean(emergencyFlags[slot]);
+        }
+    }
+
+    /**
+     * Restores what writeState() wrote into an empty queue, so it hands out
+     * planes in the same order; items maps the numbers back to planes.
+     */
+    void readState(DataInput in, IntFunction<? extends T> items) throws IOException {
+        if (size != 0) {
+            throw new IllegalStateException("Landing queue is not empty");
+        }
+        nextSequence = in.readLong();
+        int count = in.readInt();
+        for (int slot = 0; slot < count; slot++) {
+            if (size == this.items.length) {
+                grow();
+            }
+            this.items[slot] = items.apply(in.readInt());
+            ids[slot] = in.readInt();
+            ranks[slot] = in.readLong();
+            sequences[slot] = in.readLong();
+            emergencyFlags[slot] = in.readBoolean();
+            if (emergencyFlags[slot]) {
+                emergencies++;
+            }
+            indexPut(ids[slot], slot);
+            size++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeAt(int slot) {
+        T removed = (T) items[slot];
+        if (emergencyFlags[slot]) {
+            emergencies--;
+        }
+        indexRemove(ids[slot]);
+
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            indexPut(ids[slot], slot);
+            siftDown(slot);
+            siftUp(slot);
+        }
+        items[last] = null;
+        return removed;
+    }
+
+    private boolean before(int a, int b) {
+        if (ranks[a] != ranks[b]) {
+            return ranks[a] < ranks[b];
+        }
+        return sequences[a] < sequences[b];
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(slot, parent)) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(child + 1, child)) {
+                child++;
+            }
+            if (!before(child, slot)) {
+                break;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        int id = ids[a];
+        long rank = ranks[a];
+        long sequence = sequences[a];
+        boolean emergency = emergencyFlags[a];
+        move(b, a);
+        items[b] = item;
+        ids[b] = id;
+        ranks[b] = rank;
+        sequences[b] = sequence;
+        emergencyFlags[b] = emergency;
+        indexPut(ids[a], a);
+        indexPut(ids[b], b);
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        ids[to] = ids[from];
+        ranks[to] = ranks[from];
+        sequences[to] = sequences[from];
+        emergencyFlags[to] = emergencyFlags[from];
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        ranks = Arrays.copyOf(ranks, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        emergencyFlags = Arrays.copyOf(emergencyFlags, capacity);
+
+        // Keep the index at most half full
+        int[] oldKeys = indexKeys;
+        int[] oldSlots = indexSlots;
+        indexKeys = new int[capacity * 2];
+        indexSlots = new int[capacity * 2];
+        Arrays.fill(indexSlots, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != EMPTY) {
+                indexPut(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+
+    private int home(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (indexKeys.length - 1);
+    }
+
+    private int indexGet(int id) {
+        int mask = indexKeys.length - 1;
+        for (int i = home(id); indexSlots[i] != EMPTY; i = (i + 1) & mask) {
+            if (indexKeys[i] == id) {
+                return indexSlots[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void indexPut(int id, int slot) {
+        int mask = indexKeys.length - 1;
+        int i = home(id);
+        while (indexSlots[i] != EMPTY && indexKeys[i] != id) {
+            i = (i + 1) & mask;
+        }
+        indexKeys[i] = id;
+        indexSlots[i] = slot;
+    }
+
+    private void indexRemove(int id) {
+        int mask = indexKeys.length - 1;
+        int i = home(id);
+        while (indexKeys[i] != id) {
+            if (indexSlots[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (indexSlots[i] == EMPTY) {
+            return;
+        }
+        // Shift later entries of the probe run back into the hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; indexSlots[j] != EMPTY; j = (j + 1) & mask) {
+            int h = home(indexKeys[j]);
+            boolean movable = hole <= j ? (h <= hole || h > j) : (h <= hole && h > j);
+            if (movable) {
+                indexKeys[hole] = indexKeys[j];
+                indexSlots[hole] = indexSlots[j];
+                hole = j;
+            }
+        }
+        indexSlots[hole] = EMPTY;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+}
@@ -0,0 +1,197 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, log-bucketed histogram for millisecond durations.
+ *
+ * Values below 64 get one bucket each. Larger values fall into 32
+ * sub-buckets per power of two, so any reported percentile is within about
+ * 3% of the true value. Memory is constant (about 1400 buckets per stripe)
+ * however many values are recorded. Counts are striped by recording thread
+ * so concurrent recorders rarely touch the same cache line. snapshot() can be
+ * taken at any time without pausing recorders; it sees every value recorded
+ * before it started and possibly some recorded during it.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2; // 64: exact below this
+    private static final int MAX_EXPONENT = 47; // Values are clamped to < 2^48 ms
+    static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - 5) * SUB_BUCKETS;
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final int stripeMask;
+    private final AtomicLongArray counts; // stripe * BUCKETS + bucket
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public LatencyHistogram() {
+        int stripes = Integer.highestOneBit(Math.min(8, Runtime.getRuntime().availableProcessors()));
+        this.stripeMask = stripes - 1;
+        this.counts = new AtomicLongArray(stripes * BUCKETS);
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        long thread = Thread.currentThread().threadId();
+        int stripe = (int) (thread ^ (thread >>> 16)) & stripeMask;
+        counts.getAndIncrement(stripe * BUCKETS + bucketOf(clamped));
+        total.increment();
+        sum.add(clamped);
+        min.accumulate(clamped);
+        max.accumulate(clamped);
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < counts.length(); i++) {
+            merged[i % BUCKETS] += counts.get(i);
+        }
+        long count = 0;
+        for (long c : merged) {
+            count += c;
+        }
+        return new Snapshot(merged, count, sum.sum(), min.get(), max.get());
+    }
+
+    /**
+     * Writes the values recorded so far for an EventSimulation checkpoint.
+     * Only non-empty buckets are written, so a histogram of a few distinct
+     * phase lengths takes a few dozen bytes.
+     */
+    void writeState(DataOutput out) throws IOException {
+        Snapshot snapshot = snapshot();
+        int used = 0;
+        for (long c : snapshot.counts) {
+            if (c != 0) {
+                used++;
+            }
+        }
+        out.writeLong(snapshot.sum);
+        out.writeLong(snapshot.min);
+        out.writeLong(snapshot.max);
+        out.writeShort(used);
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (snapshot.counts[bucket] != 0) {
+                out.writeShort(bucket);
+                out.writeLong(snapshot.counts[bucket]);
+            }
+        }
+    }
+
+    /**
+     * Adds the values written by writeState().
+     */
+    void readState(DataInput in) throws IOException {
+        long restoredSum = in.readLong();
+        long restoredMin = in.readLong();
+        long restoredMax = in.readLong();
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.readUnsignedShort();
+            long count = in.readLong();
+            if (bucket >= BUCKETS) {
+                throw new IOException("Histogram bucket out of range: " + bucket);
+            }
+            counts.getAndAdd(bucket, count);
+            total.add(count);
+        }
+        sum.add(restoredSum);
+        min.accumulate(restoredMin);
+        max.accumulate(restoredMax);
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 6) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that falls into the bucket
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = 6 + (bucket - LINEAR_LIMIT) / SUB_BUCKETS;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width - 1;
+    }
+
+    /**
+     * Point-in-time copy of a histogram; safe to keep and query later.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Combined distribution of this snapshot and another, e.g. to pool
+         * the results of independent runs.
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = counts.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.counts[i];
+            }
+            return new Snapshot(merged, count + other.count, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return count == 0 ? 0 : min;
+        }
+
+        public long getMax() {
+            return count == 0 ? 0 : max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Value at the given percentile (0-100), to bucket precision.
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return Math.max(getMin(), Math.min(highestValueIn(bucket), getMax()));
+                }
+            }
+            return getMax();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.airport;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Main {
+    public static void main(String[] args) {
+        EventLog log = EventLog.console();
+        log.info("Starting Asia Pacific Airport Simulation...\n");
+
+        // Select thread model with -Dairport.mode=platform|virtual|pooled|async
+        ExecutionMode mode = ExecutionMode.fromSystemProperty();
+        log.info("Execution mode: {}\n", mode);
+
+        // Create airport with 3 gates (last one for emergency); refuel trucks
+        // and dispatch policy come from -Dairport.refuel.*
+        // -Dairport.journal records every ATC decision and phase for JournalReplay
+        EventJournal journal = EventJournal.fromSystemProperties();
+        Airport airport = new Airport(new GateAllocator(2, 0, 1), SimClock.SYSTEM, log,
+                AirportConfig.fromSystemProperties(), journal);
+
+        // Start ATC thread
+        Thread atcThread = new Thread(airport, "ATC");
+        atcThread.start();
+
+        // -Dairport.metrics.port serves live ATC state for Prometheus
+        MetricsServer metrics = null;
+        try {
+            metrics = MetricsServer.fromSystemProperties(airport);
+        } catch (IOException e) {
+            log.error("Cannot start metrics server: {}", e);
+        }
+        if (metrics != null) {
+            log.info("Metrics at http://localhost:{}/metrics\n", metrics.getPort());
+        }
+
+        // Warns about planes left waiting on ATC past -Dairport.watchdog.ms
+        StarvationWatchdog watchdog = StarvationWatchdog.fromSystemProperties(airport);
+
+        // Arrivals are generated one at a time; see TrafficGenerator for -D options
+        TrafficGenerator traffic = TrafficGenerator.fromSystemProperties();
+        log.info("Traffic seed: {}\n", traffic.getSeed());
+
+        // Planes still in flight, plus one for the traffic loop itself; the
+        // last to finish opens the latch. No per-plane handle and no limit
+        // on how many fly at once
+        AtomicLong inFlight = new AtomicLong(1);
+        CountDownLatch allDone = new CountDownLatch(1);
+        Runnable finished = () -> {
+            if (inFlight.decrementAndGet() == 0) {
+                allDone.countDown();
+            }
+        };
+        SimClock clock = airport.getClock();
+        long start = clock.now();
+        while (traffic.hasNext()) {
+            Arrival arrival = traffic.next();
+            long delay = start + arrival.getTime() - clock.now();
+            if (delay > 0) {
+                clock.sleep(delay);
+            }
+
+            inFlight.incrementAndGet();
+            // In async mode the plane is a state machine on a shared scheduler, not a thread
+            mode.launchPlane(new Plane(arrival, airport, mode), airport).whenComplete((ignored, e) -> {
+                if (e != null && mode != ExecutionMode.ASYNC) {
+                    log.error("Plane failed: {}", e); // AsyncPlane logs its own failures
+                }
+                finished.run();
+            });
+        }
+
+        // Wait for all planes to finish
+        finished.run();
+        try {
+            allDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Stop ATC
+        airport.shutdown();
+        try {
+            atcThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ExecutionMode.shutdownPools();
+        if (watchdog != null) {
+            watchdog.close();
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("Cannot close journal: {}", e);
+        }
+
+        // Print statistics once every queued log line is out
+        log.info("\n========== SIMULATION COMPLETE ==========");
+        log.flush();
+        airport.printStatistics();
+    }
+}
\ No newline at end of file
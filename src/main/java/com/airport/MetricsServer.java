@@ -0,0 +1,194 @@
+package com.airport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Serves an Airport's live ATC state at http://localhost:PORT/metrics in the
+ * Prometheus text format, using the JDK's built-in HTTP server.
+ *
+ * Every value is read from AtcMetrics and Statistics with lock-free loads,
+ * so a scrape never blocks an ATC controller. The server listens on the
+ * loopback interface only.
+ */
+public final class MetricsServer implements Closeable {
+    private final HttpServer server;
+    private final Airport airport;
+
+    // Previous scrape, for the requests-per-second gauge
+    private long lastScrapeNanos;
+    private long lastRequests;
+
+    private MetricsServer(HttpServer server, Airport airport) {
+        this.server = server;
+        this.airport = airport;
+        this.lastScrapeNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts serving on the given port (0 picks a free one).
+     */
+    public static MetricsServer start(Airport airport, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        MetricsServer metrics = new MetricsServer(server, airport);
+        server.createContext("/metrics", metrics::handle);
+        server.start();
+        return metrics;
+    }
+
+    /**
+     * Starts a server on -Dairport.metrics.port, or returns null if it is not set.
+     */
+    public static MetricsServer fromSystemProperties(Airport airport) throws IOException {
+        Integer port = Integer.getInteger("airport.metrics.port");
+        return port == null ? null : start(airport, port);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * The current metrics in Prometheus text format.
+     */
+    String scrape() {
+        AtcMetrics metrics = airport.getMetrics();
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "airport_atc_requests_total", "counter", "Requests received by ATC");
+        for (Airport.RequestType type : Airport.RequestType.values()) {
+            if (type != Airport.RequestType.SHUTDOWN) {
+                sample(out, "airport_atc_requests_total", "type", label(type), metrics.getRequests(type));
+            }
+        }
+        header(out, "airport_atc_decisions_total", "counter",
+                "ATC decisions: granted, or denied (queued because it could not be granted on arrival)");
+        for (Airport.RequestType type : Airport.RequestType.values()) {
+            if (type == Airport.RequestType.SHUTDOWN) {
+                continue;
+            }
+            out.append("airport_atc_decisions_total{type=\"").append(label(type))
+                    .append("\",decision=\"granted\"} ").append(metrics.getGranted(type)).append('\n');
+            out.append("airport_atc_decisions_total{type=\"").append(label(type))
+                    .append("\",decision=\"denied\"} ").append(metrics.getDenied(type)).append('\n');
+        }
+        header(out, "airport_atc_grant_ratio", "gauge", "Share of decisions that were grants, per request type");
+        for (Airport.RequestType type : Airport.RequestType.values()) {
+            long granted = metrics.getGranted(type);
+            long decisions = granted + metrics.getDenied(type);
+            if (type != Airport.RequestType.SHUTDOWN && decisions > 0) {
+                sample(out, "airport_atc_grant_ratio", "type", label(type), (double) granted / decisions);
+            }
+        }
+        header(out, "airport_atc_requests_per_second", "gauge", "ATC requests per second since the previous scrape");
+        sample(out, "airport_atc_requests_per_second", requestsPerSecond(metrics.getTotalRequests()));
+        header(out, "airport_atc_batch_size", "gauge", "Requests in the last mailbox drain, per ATC controller");
+        for (AtcController.Kind controller : AtcController.Kind.values()) {
+            sample(out, "airport_atc_batch_size", "controller", label(controller), metrics.getBatchSize(controller));
+        }
+        ContentionProfiler profiler = airport.getProfiler();
+        header(out, "airport_atc_mailbox_wait_p99_microseconds", "gauge",
+                "99th percentile wait on each ATC controller's mailbox");
+        for (AtcController.Kind controller : AtcController.Kind.values()) {
+            sample(out, "airport_atc_mailbox_wait_p99_microseconds", "controller", label(controller),
+                    profiler.mailboxWait(controller).percentile(99));
+        }
+        header(out, "airport_atc_starved_total", "counter", "Calls flagged by the starvation watchdog");
+        sample(out, "airport_atc_starved_total", profiler.getStarved());
+        header(out, "airport_landing_holds_total", "counter", "Times the head of the landing queue was held, by reason");
+        for (Airport.HoldReason reason : Airport.HoldReason.values()) {
+            sample(out, "airport_landing_holds_total", "reason", label(reason), metrics.getHolds(reason));
+        }
+
+        long landing = metrics.getGauge(AtcMetrics.Gauge.LANDING_QUEUE);
+        long emergencies = metrics.getGauge(AtcMetrics.Gauge.EMERGENCY_QUEUE);
+        header(out, "airport_landing_queue_depth", "gauge", "Planes holding for landing clearance");
+        sample(out, "airport_landing_queue_depth", "priority", "emergency", emergencies);
+        sample(out, "airport_landing_queue_depth", "priority", "normal", landing - emergencies);
+        header(out, "airport_cleared_arrivals_depth", "gauge", "Planes with a gate reserved, waiting for a runway slot");
+        sample(out, "airport_cleared_arrivals_depth", metrics.getGauge(AtcMetrics.Gauge.CLEARED_ARRIVALS));
+        header(out, "airport_takeoff_queue_depth", "gauge", "Planes at the holding point waiting for a runway");
+        sample(out, "airport_takeoff_queue_depth", metrics.getGauge(AtcMetrics.Gauge.TAKEOFF_QUEUE));
+        header(out, "airport_refuel_queue_depth", "gauge", "Planes waiting for a refuel truck");
+        sample(out, "airport_refuel_queue_depth", metrics.getGauge(AtcMetrics.Gauge.REFUEL_QUEUE));
+
+        header(out, "airport_runway_occupant", "gauge", "Plane holding each runway, or -1 if free");
+        for (int runway = 1; runway <= metrics.getRunways(); runway++) {
+            sample(out, "airport_runway_occupant", "runway", Integer.toString(runway),
+                    metrics.getRunwayOccupant(runway));
+        }
+        header(out, "airport_gate_occupied", "gauge", "1 if the gate is occupied");
+        for (int gate = 1; gate <= metrics.getGates(); gate++) {
+            sample(out, "airport_gate_occupied", "gate", Integer.toString(gate), metrics.isGateOccupied(gate) ? 1 : 0);
+        }
+        header(out, "airport_ground_permits_available", "gauge", "Free ground capacity permits");
+        sample(out, "airport_ground_permits_available", metrics.getGauge(AtcMetrics.Gauge.GROUND_PERMITS));
+        header(out, "airport_refuel_trucks_free", "gauge", "Refuel trucks not assigned to a plane");
+        sample(out, "airport_refuel_trucks_free", metrics.getGauge(AtcMetrics.Gauge.FREE_TRUCKS));
+
+        Statistics stats = airport.getStatistics();
+        header(out, "airport_planes_served_total", "counter", "Planes that have departed");
+        sample(out, "airport_planes_served_total", stats.getPlanesServed());
+        header(out, "airport_passengers_total", "counter", "Passengers boarded on departed planes");
+        sample(out, "airport_passengers_total", stats.getTotalPassengers());
+        return out.toString();
+    }
+
+    private synchronized double requestsPerSecond(long totalRequests) {
+        long now = System.nanoTime();
+        double seconds = (now - lastScrapeNanos) / 1e9;
+        double rate = seconds <= 0 ? 0 : (totalRequests - lastRequests) / seconds;
+        lastScrapeNanos = now;
+        lastRequests = totalRequests;
+        return rate;
+    }
+
+    private static String label(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, double value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, double value) {
+        out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ")
+                .append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, long value) {
+        out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ")
+                .append(value).append('\n');
+    }
+}
@@ -0,0 +1,25 @@
+package com.airport;
+
+import java.util.Random;
+
+/**
+ * Number of passengers on an arriving plane.
+ */
+public interface PassengerDistribution {
+
+    int sample(Random random);
+
+    static PassengerDistribution uniform(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid passenger range: " + min + "-" + max);
+        }
+        return random -> min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     * Normal distribution clamped to 0..max.
+     */
+    static PassengerDistribution normal(double mean, double stddev, int max) {
+        return random -> (int) Math.max(0, Math.min(max, Math.round(mean + stddev * random.nextGaussian())));
+    }
+}
@@ -0,0 +1,193 @@
+package com.airport;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class Plane implements Runnable {
+        private final int id;
+        private final int passengers;
+        private final Airport airport;
+        private final ExecutionMode executionMode;
+        private final boolean isEmergency;
+        private final long refuelTime; // Truck time needed for this plane's fuel demand
+        private final long arrivalTime;
+        private long phaseStart; // When the current FlightPhase began
+        private final Airport.ATCRequest atcRequest; // Reused for every call to ATC
+
+        public Plane(int id, int passengers, Airport airport) {
+                this(id, passengers, airport, ExecutionMode.PLATFORM);
+        }
+
+        public Plane(int id, int passengers, Airport airport, ExecutionMode executionMode) {
+                // No traffic generator: roll the emergency here (20% chance)
+                this(id, passengers, ThreadLocalRandom.current().nextInt(100) < Config.EMERGENCY_PERCENT,
+                                airport, executionMode);
+        }
+
+        public Plane(int id, int passengers, boolean isEmergency, Airport airport, ExecutionMode executionMode) {
+                this(id, passengers, isEmergency, Config.REFUEL_MS, airport, executionMode);
+        }
+
+        public Plane(Arrival arrival, Airport airport, ExecutionMode executionMode) {
+                this(arrival.getPlaneId(), arrival.getPassengers(), arrival.isEmergency(), arrival.getRefuelTime(),
+                                airport, executionMode);
+        }
+
+        public Plane(int id, int passengers, boolean isEmergency, long refuelTime, Airport airport,
+                        ExecutionMode executionMode) {
+                this.id = id;
+                this.passengers = passengers;
+                this.isEmergency = isEmergency;
+                this.refuelTime = refuelTime;
+                this.airport = airport;
+                this.executionMode = executionMode;
+                this.arrivalTime = airport.getClock().now();
+                this.atcRequest = new Airport.ATCRequest(this);
+        }
+
+        public int getId() {
+                return id;
+        }
+
+        public int getPassengers() {
+                return passengers;
+        }
+
+        public boolean isEmergency() {
+                return isEmergency;
+        }
+
+        public long getRefuelTime() {
+                return refuelTime;
+        }
+
+        public long getArrivalTime() {
+                return arrivalTime;
+        }
+
+        Airport.ATCRequest getAtcRequest() {
+                return atcRequest;
+        }
+
+        @Override
+        public void run() {
+                SimClock clock = airport.getClock();
+                EventLog log = airport.getLog();
+                try {
+                        if (isEmergency) {
+                                log.info("[EMERGENCY - FUEL SHORTAGE] approaching with {} passengers", passengers);
+                                log.info("[EMERGENCY - FUEL SHORTAGE] Requesting permission to land");
+                        } else {
+                                log.info("Approaching with {} passengers", passengers);
+                                log.info("Requesting permission to land");
+                        }
+                        Gate assignedGate = airport.requestLanding(this);
+
+                        long landingTime = clock.now();
+                        long waitTime = landingTime - arrivalTime;
+                        phaseStart = arrivalTime;
+                        endPhase(FlightPhase.HOLDING);
+
+                        log.info("Received clearance! Landing on runway (waited {}ms)", waitTime);
+
+                        // Land on runway
+                        clock.sleep(Config.LANDING_MS);
+                        endPhase(FlightPhase.LANDING);
+                        log.info("Landed successfully");
+                        // Vacate the runway onto the taxiway
+                        airport.releaseRunway(this);
+
+                        // Taxi to gate
+                        log.info("Taxiing to Gate {}", assignedGate.getId());
+                        clock.sleep(Config.TAXI_TO_GATE_MS);
+                        endPhase(FlightPhase.TAXI_TO_GATE);
+
+                        // Dock at gate (gate was already reserved by ATC)
+                        log.info("Docking at Gate {}", assignedGate.getId());
+                        clock.sleep(Config.DOCKING_MS);
+                        endPhase(FlightPhase.DOCKING);
+                        log.info("Docked at Gate {}", assignedGate.getId());
+
+                        // Ground operations: each crew starts once the tasks it
+                        // depends on are done, on the shared ground pool
+                        TurnaroundGraph graph = airport.getConfig().getTurnaround(assignedGate.getGateClass());
+                        TurnaroundGraph.Timeline timeline = new TurnaroundGraph.Timeline();
+                        long docked = phaseStart;
+                        ExecutionMode.await(graph.run(task -> executionMode.runCrew(task.getCrew() + "-P" + id, () -> {
+                                timeline.started(task, clock.now());
+                                groundTask(task, timeline);
+                                timeline.finished(task, clock.now());
+                        })));
+                        timeline.forEachPhase(docked, (phase, duration) -> airport.recordPhase(this, phase, duration));
+                        phaseStart = clock.now();
+
+                        // Undock
+                        log.info("Undocking from Gate {}", assignedGate.getId());
+                        clock.sleep(Config.UNDOCKING_MS);
+                        airport.releaseGate(this, assignedGate);
+                        endPhase(FlightPhase.UNDOCKING);
+
+                        // Taxi to the holding point, then wait for a takeoff slot
+                        log.info("Taxiing to runway");
+                        clock.sleep(Config.TAXI_TO_RUNWAY_MS);
+                        endPhase(FlightPhase.TAXI_TO_RUNWAY);
+
+                        log.info("Requesting runway for takeoff");
+                        airport.requestRunwayForTakeoff(this);
+                        endPhase(FlightPhase.TAKEOFF_WAIT);
+
+                        // Takeoff
+                        log.info("Taking off...");
+                        clock.sleep(Config.TAKEOFF_MS);
+                        endPhase(FlightPhase.TAKEOFF);
+                        airport.recordPhase(this, FlightPhase.TURNAROUND, phaseStart - landingTime);
+                        log.info("Departed successfully with {} passengers", passengers);
+                        airport.releaseRunway(this);
+                        airport.recordDeparture(this, waitTime);
+
+                } catch (InterruptedException e) {
+                        log.error("Interrupted");
+                        Thread.currentThread().interrupt();
+                }
+        }
+
+        // Body of one ground crew task; runs on the crew's thread
+        private void groundTask(TurnaroundGraph.Task task, TurnaroundGraph.Timeline timeline)
+                        throws InterruptedException {
+                SimClock clock = airport.getClock();
+                EventLog log = airport.getLog();
+                switch (task) {
+                        case DISEMBARK:
+                                log.info("Passengers disembarking ({} people)", passengers);
+                                clock.sleep(Config.DISEMBARK_MS);
+                                log.info("All passengers disembarked");
+                                break;
+                        case CLEANING:
+                                log.info("Cleaning and resupplying");
+                                clock.sleep(Config.CLEANING_MS);
+                                log.info("Cleaning complete");
+                                break;
+                        case REFUEL:
+                                // Refuel (exclusive operation): the crew waits for a truck
+                                log.info("Requesting refuel truck");
+                                int truck = airport.requestRefuel(this);
+                                timeline.truckAssigned(clock.now());
+                                log.info("Refueling from truck {}...", truck);
+                                clock.sleep(refuelTime);
+                                log.info("Refueling complete");
+                                airport.releaseRefuel(this, truck);
+                                break;
+                        case BOARDING:
+                                log.info("Boarding passengers ({} people)", passengers);
+                                clock.sleep(Config.BOARDING_MS);
+                                log.info("All passengers boarded");
+                                break;
+                }
+        }
+
+        // Records how long the phase that just finished took
+        private void endPhase(FlightPhase phase) {
+                long now = airport.getClock().now();
+                airport.recordPhase(this, phase, now - phaseStart);
+                phaseStart = now;
+        }
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fleet of refuel trucks and the planes waiting for one.
+ *
+ * Trucks are numbered from 1 and handed out from a free stack, so each
+ * plane knows which truck it holds and the report can show per-truck
+ * utilization. Waiters are kept in a heap ordered by the RefuelPolicy, with
+ * ties broken FIFO.
+ *
+ * Shortest-job-first ages like LandingQueue: a plane ranks as if it had
+ * queued its refuel time later, so a long refuel is only passed over by
+ * planes that queued less than the difference in refuel time after it, and
+ * cannot starve however many short jobs keep arriving. A fuel emergency
+ * ranks by its queue time alone, ahead of every normal plane that queued
+ * at the same time. Ranks never change after insertion, so the heap stays
+ * valid. EMERGENCY_FIRST has no aging: a steady stream of emergencies
+ * would hold normal planes back.
+ *
+ * Not thread-safe: owned by one ATC controller (or the event loop).
+ */
+public class RefuelDispatcher<T> {
+    public static final int NO_TRUCK = 0;
+
+    private final RefuelPolicy policy;
+    private final int trucks;
+    private final int[] freeTrucks; // Stack of truck numbers
+    private int freeCount;
+    private long nextSequence;
+    private int size;
+
+    // Heap, stored as parallel arrays
+    private Object[] items;
+    private long[] ranks;
+    private long[] sequences;
+
+    public RefuelDispatcher(int trucks, RefuelPolicy policy) {
+        if (trucks < 1) {
+            throw new IllegalArgumentException("Need at least one refuel truck: " + trucks);
+        }
+        this.policy = policy;
+        this.trucks = trucks;
+        this.freeTrucks = new int[trucks];
+        // Push in reverse so truck 1 is handed out first
+        for (int truck = trucks; truck >= 1; truck--) {
+            freeTrucks[freeCount++] = truck;
+        }
+        this.items = new Object[8];
+        this.ranks = new long[8];
+        this.sequences = new long[8];
+    }
+
+    /**
+     * Queues a plane that needs refuelMs of truck time.
+     */
+    public void add(T item, long refuelMs, boolean emergency, long now) {
+        if (size == items.length) {
+            grow();
+        }
+        int slot = size++;
+        items[slot] = item;
+        switch (policy) {
+            case SHORTEST_JOB_FIRST:
+                ranks[slot] = emergency ? now : saturatedAdd(now, refuelMs);
+                break;
+            case EMERGENCY_FIRST:
+                ranks[slot] = emergency ? 0 : 1;
+                break;
+            default:
+                ranks[slot] = 0;
+                break;
+        }
+        sequences[slot] = nextSequence++;
+        siftUp(slot);
+    }
+
+    /**
+     * True if a plane is waiting and a truck is free to serve it.
+     */
+    public boolean canDispatch() {
+        return size > 0 && freeCount > 0;
+    }
+
+    /**
+     * Takes a free truck, or returns NO_TRUCK if all are out.
+     */
+    public int takeTruck() {
+        return freeCount > 0 ? freeTrucks[--freeCount] : NO_TRUCK;
+    }
+
+    public void releaseTruck(int truck) {
+        if (truck < 1 || truck > trucks || freeCount == trucks) {
+            throw new IllegalStateException("Refuel truck " + truck + " is not out");
+        }
+        for (int i = 0; i < freeCount; i++) {
+            if (freeTrucks[i] == truck) {
+                throw new IllegalStateException("Refuel truck " + truck + " released twice");
+            }
+        }
+        freeTrucks[freeCount++] = truck;
+    }
+
+    /**
+     * Removes and returns the next plane by policy, or null if none waits.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        T head = (T) items[0];
+        size--;
+        move(size, 0);
+        items[size] = null;
+        siftDown(0);
+        return head;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int freeTrucks() {
+        return freeCount;
+    }
+
+    public int getTrucks() {
+        return trucks;
+    }
+
+    public RefuelPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Visits every waiting plane in heap order.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super T> action) {
+        for (int slot = 0; slot < size; slot++) {
+            action.accept((T) items[slot]);
+        }
+    }
+
+    /**
+     * Writes the free trucks and the waiters' heap for an EventSimulation
+     * checkpoint; each plane is written as the number refs gives it.
+     */
+    @SuppressWarnings("unchecked")
+    void writeState(DataOutput out, ToIntFunction<? super T> refs) throws IOException {
+        out.writeShort(trucks);
+        out.writeByte(policy.ordinal());
+        out.writeShort(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.writeShort(freeTrucks[i]);
+        }
+        out.writeLong(nextSequence);
+        out.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            out.writeInt(refs.applyAsInt((T) items[slot]));
+            out.writeLong(ranks[slot]);
+            out.writeLong(sequences[slot]);
+        }
+    }
+
+    /**
+     * Restores what writeState() wrote into an idle dispatcher with as many
+     * trucks and the same policy (the waiters' ranks depend on it).
+     */
+    void readState(DataInput in, IntFunction<? extends T> items) throws IOException {
+        int fleet = in.readUnsignedShort();
+        RefuelPolicy recorded = RefuelPolicy.values()[in.readUnsignedByte()];
+        if (fleet != trucks || recorded != policy) {
+            throw new IOException("Checkpoint has " + fleet + " refuel trucks (" + recorded + "), this airport " +
+                    trucks + " (" + policy + ")");
+        }
+        if (size != 0) {
+            throw new IllegalStateException("Refuel dispatcher has waiters");
+        }
+        freeCount = in.readUnsignedShort();
+        for (int i = 0; i < freeCount; i++) {
+            freeTrucks[i] = in.readUnsignedShort();
+        }
+        nextSequence = in.readLong();
+        int count = in.readInt();
+        for (int slot = 0; slot < count; slot++) {
+            if (size == this.items.length) {
+                grow();
+            }
+            this.items[slot] = items.apply(in.readInt());
+            ranks[slot] = in.readLong();
+            sequences[slot] = in.readLong();
+            size++;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return ranks[a] != ranks[b] ? ranks[a] < ranks[b] : sequences[a] < sequences[b];
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(slot, parent)) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(child + 1, child)) {
+                child++;
+            }
+            if (!before(child, slot)) {
+                break;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        long rank = ranks[a];
+        long sequence = sequences[a];
+        move(b, a);
+        items[b] = item;
+        ranks[b] = rank;
+        sequences[b] = sequence;
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        ranks[to] = ranks[from];
+        sequences[to] = sequences[from];
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        ranks = Arrays.copyOf(ranks, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+    }
+}
@@ -0,0 +1,21 @@
+package com.airport;
+
+/**
+ * Order in which waiting planes get a free refuel truck.
+ */
+public enum RefuelPolicy {
+    FIFO,
+    SHORTEST_JOB_FIRST, // Least fuel needed first, aged by queue time; emergencies ahead
+    EMERGENCY_FIRST; // Planes low on fuel first, FIFO among equals
+
+    /**
+     * Reads a policy name such as "sjf", "fifo" or "emergency_first".
+     */
+    public static RefuelPolicy parse(String name) {
+        String normalized = name.trim().toUpperCase();
+        if (normalized.equals("SJF")) {
+            return SHORTEST_JOB_FIRST;
+        }
+        return valueOf(normalized);
+    }
+}
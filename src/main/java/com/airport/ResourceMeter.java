@@ -0,0 +1,100 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Busy/idle accounting for a resource with a fixed number of units (a
+ * runway, the refuel truck, ground slots, a gate).
+ *
+ * It integrates units-in-use over time, so utilization is busy unit-time
+ * divided by capacity times elapsed time. Only one thread may call
+ * acquire and release: the thread that owns the resource, normally the ATC
+ * thread. The fields are volatile, so other threads can read a
+ * slightly stale view while a run is in progress.
+ */
+public class ResourceMeter {
+    private final String name;
+    private final int capacity;
+    private final long startTime;
+    private volatile int inUse;
+    private volatile int peakInUse;
+    private volatile long lastChange;
+    private volatile long busyUnitTime;
+
+    public ResourceMeter(String name, int capacity, long startTime) {
+        this.name = name;
+        this.capacity = capacity;
+        this.startTime = startTime;
+        this.lastChange = startTime;
+    }
+
+    public void acquire(long now) {
+        advance(now);
+        inUse++;
+        if (inUse > peakInUse) {
+            peakInUse = inUse;
+        }
+    }
+
+    public void release(long now) {
+        advance(now);
+        inUse--;
+    }
+
+    private void advance(long now) {
+        if (now > lastChange) {
+            busyUnitTime += (long) inUse * (now - lastChange);
+            lastChange = now;
+        }
+    }
+
+    /**
+     * Fraction of capacity in use between the start and the given time, 0-1.
+     */
+    public double utilization(long now) {
+        long elapsed = now - startTime;
+        if (elapsed <= 0 || capacity == 0) {
+            return 0;
+        }
+        long busy = busyUnitTime + (long) inUse * Math.max(0, now - lastChange);
+        return (double) busy / ((double) capacity * elapsed);
+    }
+
+    /**
+     * Writes the accounting so far for an EventSimulation checkpoint.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(inUse);
+        out.writeInt(peakInUse);
+        out.writeLong(lastChange);
+        out.writeLong(busyUnitTime);
+    }
+
+    /**
+     * Replaces the accounting with what writeState() wrote; owner only.
+     */
+    void readState(DataInput in) throws IOException {
+        inUse = in.readInt();
+        peakInUse = in.readInt();
+        lastChange = in.readLong();
+        busyUnitTime = in.readLong();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getInUse() {
+        return inUse;
+    }
+
+    public int getPeakInUse() {
+        return peakInUse;
+    }
+}
@@ -0,0 +1,167 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Assigns runway slots to arrivals and departures.
+ *
+ * Each runway holds at most one movement at a time, and after a movement
+ * ends the next one on that runway may only start once the separation for
+ * its kind has passed. A runway is therefore usable from a known time, which
+ * lets the owner plan ahead: nextSlot says when to wake up and grant again
+ * instead of polling.
+ *
+ * Sequencing: arrivals and departures alternate when both are waiting, so
+ * neither stream starves the other. When ground capacity is the binding
+ * constraint a departure always goes first, since every departure frees a
+ * gate and a ground slot for the next arrival.
+ *
+ * Not thread-safe: owned by one ATC controller (or the event loop).
+ */
+public class RunwaySequencer {
+    public static final int NO_RUNWAY = 0;
+    public static final int NO_PLANE = -1;
+
+    public enum Movement {
+        ARRIVAL,
+        DEPARTURE
+    }
+
+    private final long arrivalSeparationMs;
+    private final long departureSeparationMs;
+    private final int[] occupants; // Plane id per runway, or NO_PLANE
+    private final long[] releasedAt; // When each runway's last movement ended
+    private Movement lastMovement = Movement.DEPARTURE; // So the first choice is an arrival
+
+    /**
+     * Separations are the minimum gap between the end of one movement on a
+     * runway and the start of the next arrival or departure on it.
+     */
+    public RunwaySequencer(int runways, long arrivalSeparationMs, long departureSeparationMs) {
+        if (runways < 1) {
+            throw new IllegalArgumentException("Need at least one runway: " + runways);
+        }
+        if (arrivalSeparationMs < 0 || departureSeparationMs < 0) {
+            throw new IllegalArgumentException("Separation must not be negative");
+        }
+        this.arrivalSeparationMs = arrivalSeparationMs;
+        this.departureSeparationMs = departureSeparationMs;
+        this.occupants = new int[runways];
+        this.releasedAt = new long[runways];
+        Arrays.fill(occupants, NO_PLANE);
+        Arrays.fill(releasedAt, Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * Which kind of movement to try first for the next free slot.
+     */
+    public Movement firstChoice(boolean groundCapacityBinding) {
+        if (groundCapacityBinding || lastMovement == Movement.ARRIVAL) {
+            return Movement.DEPARTURE;
+        }
+        return Movement.ARRIVAL;
+    }
+
+    /**
+     * A runway the movement could start on now (lowest number first), or
+     * NO_RUNWAY. Nothing is reserved until occupy is called.
+     */
+    public int available(Movement movement, long now) {
+        long separation = separation(movement);
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i] == NO_PLANE && releasedAt[i] + separation <= now) {
+                return i + 1;
+            }
+        }
+        return NO_RUNWAY;
+    }
+
+    /**
+     * Earliest time a free runway opens for the movement, or Long.MAX_VALUE
+     * if every runway is occupied (its release will trigger a new decision).
+     */
+    public long nextSlot(Movement movement) {
+        long separation = separation(movement);
+        long slot = Long.MAX_VALUE;
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i] == NO_PLANE) {
+                slot = Math.min(slot, releasedAt[i] + separation);
+            }
+        }
+        return slot;
+    }
+
+    public void occupy(int runway, Movement movement, int planeId) {
+        if (occupants[runway - 1] != NO_PLANE) {
+            throw new IllegalStateException("Runway " + runway + " is occupied by Plane " + occupants[runway - 1]);
+        }
+        occupants[runway - 1] = planeId;
+        lastMovement = movement;
+    }
+
+    /**
+     * Frees the runway the plane holds and returns its number.
+     */
+    public int release(int planeId, long now) {
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i] == planeId) {
+                occupants[i] = NO_PLANE;
+                releasedAt[i] = now;
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("Plane " + planeId + " holds no runway");
+    }
+
+    public boolean hasFreeRunway() {
+        for (int occupant : occupants) {
+            if (occupant == NO_PLANE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int occupant(int runway) {
+        return occupants[runway - 1];
+    }
+
+    public int getRunways() {
+        return occupants.length;
+    }
+
+    /**
+     * Writes occupants, release times and the last movement for an
+     * EventSimulation checkpoint.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeShort(occupants.length);
+        for (int i = 0; i < occupants.length; i++) {
+            out.writeInt(occupants[i]);
+            out.writeLong(releasedAt[i]);
+        }
+        out.writeByte(lastMovement.ordinal());
+    }
+
+    /**
+     * Restores what writeState() wrote into a sequencer with as many runways.
+     */
+    void readState(DataInput in) throws IOException {
+        int runways = in.readUnsignedShort();
+        if (runways != occupants.length) {
+            throw new IOException("Checkpoint has " + runways + " runways, this airport " + occupants.length);
+        }
+        for (int i = 0; i < runways; i++) {
+            occupants[i] = in.readInt();
+            releasedAt[i] = in.readLong();
+        }
+        lastMovement = Movement.values()[in.readUnsignedByte()];
+    }
+
+    private long separation(Movement movement) {
+        return movement == Movement.ARRIVAL ? arrivalSeparationMs : departureSeparationMs;
+    }
+}
@@ -0,0 +1,64 @@
+package com.airport;
+
+/**
+ * Source of time for the simulation.
+ *
+ * Plane, Airport and Statistics read time and wait through a clock, so the
+ * same code can run against the wall clock or a virtual clock that the
+ * discrete-event engine advances from event to event.
+ */
+public interface SimClock {
+
+    /**
+     * Wall-clock time, sleeping for real (the threaded simulation).
+     */
+    SimClock SYSTEM = new SimClock() {
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(long millis) {
+            Utils.sleep(millis);
+        }
+    };
+
+    /**
+     * Wall-clock time with every sleep skipped, so a run measures only the
+     * ATC and threading overhead (used by the benchmarks).
+     */
+    SimClock NO_SLEEP = new SimClock() {
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(long millis) {
+        }
+
+        @Override
+        public long timerDelay(long millis) {
+            return 0;
+        }
+    };
+
+    /**
+     * Current time in milliseconds.
+     */
+    long now();
+
+    /**
+     * Waits for the given number of milliseconds of simulated time.
+     */
+    void sleep(long millis);
+
+    /**
+     * Real delay for a timer standing in for sleep(millis), for code that
+     * schedules the next step instead of blocking (see AsyncPlane).
+     */
+    default long timerDelay(long millis) {
+        return millis;
+    }
+}
@@ -0,0 +1,338 @@
+package com.airport;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes a large number of planes through the threaded Airport and checks
+ * that ATC never breaks its safety rules, for vetting changes to Airport's
+ * concurrency.
+ *
+ * Planes run in epochs, each on a fresh Airport that journals every ATC
+ * decision to its own file. Phases take a random few microseconds instead
+ * of their length, so every run interleaves ATC and planes differently,
+ * and at most a fixed number of planes are in the air or on the ground at
+ * once. When an epoch ends (or stalls) ATC is shut down and its journal is
+ * replayed by an InvariantChecker; a plane that failed fails the epoch too.
+ * A clean journal is deleted. On a violation the run
+ * stops and prints the minimal trace: the ATC decisions about the planes
+ * involved, up to the one that broke the rule. That journal is kept for
+ * JournalReplay.
+ */
+public class SoakHarness {
+    private final int planes;
+    private final int epochPlanes;
+    private final int concurrency;
+    private final int gates;
+    private final long jitterMicros;
+    private final long stallMs;
+    private final long seed;
+    private final ExecutionMode mode;
+    private final AirportConfig config;
+    private final Path directory;
+    private final SimClock clock;
+    private long planesFlown;
+    private long elapsedMs;
+
+    private SoakHarness(Builder builder) {
+        this.planes = builder.planes;
+        this.epochPlanes = builder.epochPlanes;
+        this.concurrency = builder.concurrency;
+        this.gates = builder.gates;
+        this.jitterMicros = builder.jitterMicros;
+        this.stallMs = builder.stallMs;
+        this.seed = builder.seed;
+        this.mode = builder.mode;
+        this.config = builder.config;
+        this.directory = builder.directory;
+        this.clock = new JitterClock(TimeUnit.MICROSECONDS.toNanos(jitterMicros));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reads -Dairport.soak.planes, -Dairport.soak.epoch (planes per epoch),
+     * -Dairport.soak.concurrency (planes in flight at once),
+     * -Dairport.soak.gates, -Dairport.soak.jitterUs (longest phase),
+     * -Dairport.soak.stallMs (see stallMs()), -Dairport.soak.dir (journal
+     * directory), -Dairport.mode (default virtual) and -Dairport.seed. The
+     * airport uses AirportConfig.fromSystemProperties().
+     */
+    public static SoakHarness fromSystemProperties() {
+        return builder()
+                .planes(Integer.getInteger("airport.soak.planes", 200_000))
+                .epochPlanes(Integer.getInteger("airport.soak.epoch", 10_000))
+                .concurrency(Integer.getInteger("airport.soak.concurrency", 64))
+                .gates(Integer.getInteger("airport.soak.gates", 3))
+                .jitterMicros(Long.getLong("airport.soak.jitterUs", 200))
+                .stallMs(Long.getLong("airport.soak.stallMs", 60_000))
+                .directory(Path.of(System.getProperty("airport.soak.dir", System.getProperty("java.io.tmpdir"))))
+                .mode(System.getProperty("airport.mode") == null ? ExecutionMode.VIRTUAL
+                        : ExecutionMode.fromSystemProperty())
+                .seed(Long.getLong("airport.seed", 1))
+                .config(AirportConfig.fromSystemProperties())
+                .build();
+    }
+
+    /**
+     * Runs every epoch until one breaks a rule; returns whether all passed.
+     */
+    public boolean run(PrintStream out) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        int epoch = 0;
+        for (int remaining = planes; remaining > 0; remaining -= epochPlanes) {
+            if (!runEpoch(epoch++, Math.min(epochPlanes, remaining), out)) {
+                elapsedMs = (System.nanoTime() - started) / 1_000_000;
+                return false;
+            }
+        }
+        elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return true;
+    }
+
+    private boolean runEpoch(int epoch, int count, PrintStream out) throws IOException, InterruptedException {
+        Path file = directory.resolve("soak-" + seed + "-" + epoch + ".jnl");
+        EventJournal journal = EventJournal.open(file);
+        // The last gate is reserved for emergencies
+        GateAllocator allocator = new GateAllocator(gates - 1, 0, 1);
+        InvariantChecker checker = InvariantChecker.of(config, allocator);
+        Airport airport = new Airport(allocator, clock, EventLog.SILENT, config, journal);
+        Thread atc = new Thread(airport, "ATC");
+        // Its controller threads inherit this, so a stuck ATC cannot keep the JVM alive
+        atc.setDaemon(true);
+        atc.start();
+
+        long started = System.nanoTime();
+        TrafficGenerator traffic = TrafficGenerator.builder()
+                .planes(count)
+                .seed(seed + epoch)
+                .build();
+        Semaphore slots = new Semaphore(concurrency);
+        CountDownLatch landed = new CountDownLatch(count);
+        AtomicLong failures = new AtomicLong();
+        boolean stalled = false;
+        boolean stopped;
+        try {
+            while (traffic.hasNext() && !stalled) {
+                Arrival arrival = traffic.next();
+                // Arrival times are ignored: the next plane comes as soon as there is room
+                stalled = !slots.tryAcquire(stallMs, TimeUnit.MILLISECONDS);
+                if (!stalled) {
+                    mode.launchPlane(new Plane(arrival, airport, mode), airport).whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            failures.incrementAndGet();
+                            out.println("Epoch " + epoch + ": Plane " + arrival.getPlaneId() + " failed: " + failure);
+                        }
+                        slots.release();
+                        landed.countDown();
+                    });
+                }
+            }
+            stalled = stalled || !landed.await(stallMs, TimeUnit.MILLISECONDS);
+        } finally {
+            // Planes still stuck on ATC are abandoned
+            airport.shutdown();
+            atc.join(stallMs);
+            stopped = !atc.isAlive();
+            if (stopped) {
+                journal.close();
+            }
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+
+        // A broken rule in the journal says more than a stall or a failed plane
+        InvariantChecker.Violation violation = checker.verify(file);
+        if (violation == null && stalled) {
+            violation = new InvariantChecker.Violation("No plane departed for " + stallMs + " ms" +
+                    (stopped ? "" : "; ATC did not stop"), 0, Collections.emptySet());
+        } else if (violation == null && failures.get() > 0) {
+            violation = new InvariantChecker.Violation(failures.get() + " plane(s) failed", 0,
+                    Collections.emptySet());
+        }
+        if (violation != null) {
+            out.println("Epoch " + epoch + ": FAIL - " + violation);
+            out.println("Minimal failing trace (" + file + "):");
+            for (EventJournal.Record record : InvariantChecker.trace(file, violation)) {
+                out.println("  " + record);
+            }
+            return false;
+        }
+        Files.delete(file);
+        planesFlown += checker.getDepartures();
+        out.println(String.format("Epoch %d: %d planes in %d ms (%.0f planes/s), invariants hold",
+                epoch, count, elapsed, elapsed == 0 ? 0.0 : count * 1000.0 / elapsed));
+        return true;
+    }
+
+    public long getPlanesFlown() {
+        return planesFlown;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Runs the soak configured by system properties (see
+     * fromSystemProperties()); exits with status 1 on a violation.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SoakHarness soak = fromSystemProperties();
+        System.out.println(Utils.threadInfo() + "Soaking " + soak.planes + " planes in epochs of " +
+                soak.epochPlanes + ", " + soak.concurrency + " in flight, " + soak.mode + " mode, seed " + soak.seed);
+        boolean passed = soak.run(System.out);
+        ExecutionMode.shutdownPools();
+        System.out.println("\n========== SOAK ==========");
+        System.out.println(String.format("Planes: %d in %d ms (%.0f planes/s)", soak.planesFlown, soak.elapsedMs,
+                soak.elapsedMs == 0 ? 0.0 : soak.planesFlown * 1000.0 / soak.elapsedMs));
+        System.out.println("Invariants: " + (passed ? "PASS" : "FAIL"));
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // Wall-clock time where every phase lasts a random 0 to max nanoseconds
+    // instead of its length, so each run interleaves the planes differently
+    private static final class JitterClock implements SimClock {
+        private final long maxJitterNanos;
+
+        JitterClock(long maxJitterNanos) {
+            this.maxJitterNanos = maxJitterNanos;
+        }
+
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(long millis) {
+            if (maxJitterNanos > 0) {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(maxJitterNanos + 1));
+            }
+        }
+
+        @Override
+        public long timerDelay(long millis) {
+            return 0;
+        }
+    }
+
+    public static final class Builder {
+        private int planes = 200_000;
+        private int epochPlanes = 10_000;
+        private int concurrency = 64;
+        private int gates = 3;
+        private long jitterMicros = 200;
+        private long stallMs = 60_000;
+        private long seed = 1;
+        private ExecutionMode mode = ExecutionMode.VIRTUAL;
+        private AirportConfig config = AirportConfig.DEFAULT;
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+
+        private Builder() {
+        }
+
+        public Builder planes(int planes) {
+            if (planes < 1) {
+                throw new IllegalArgumentException("Need at least one plane: " + planes);
+            }
+            this.planes = planes;
+            return this;
+        }
+
+        /**
+         * Planes per Airport and journal; a violation's trace comes from one epoch.
+         */
+        public Builder epochPlanes(int epochPlanes) {
+            if (epochPlanes < 1) {
+                throw new IllegalArgumentException("Need at least one plane per epoch: " + epochPlanes);
+            }
+            this.epochPlanes = epochPlanes;
+            return this;
+        }
+
+        /**
+         * Most planes between arrival and departure at once.
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Need at least one plane in flight: " + concurrency);
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Gates; the last is reserved for emergencies.
+         */
+        public Builder gates(int gates) {
+            if (gates < 2) {
+                throw new IllegalArgumentException("Need at least two gates (one is for emergencies): " + gates);
+            }
+            this.gates = gates;
+            return this;
+        }
+
+        /**
+         * Longest a phase may take; 0 runs every phase back to back.
+         */
+        public Builder jitterMicros(long jitterMicros) {
+            if (jitterMicros < 0) {
+                throw new IllegalArgumentException("Jitter must not be negative: " + jitterMicros);
+            }
+            this.jitterMicros = jitterMicros;
+            return this;
+        }
+
+        /**
+         * How long to wait for room for the next plane, and for the last
+         * planes of an epoch, before the epoch counts as stalled.
+         */
+        public Builder stallMs(long stallMs) {
+            if (stallMs < 1) {
+                throw new IllegalArgumentException("Stall timeout must be positive: " + stallMs);
+            }
+            this.stallMs = stallMs;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder mode(ExecutionMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public Builder config(AirportConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        /**
+         * Where epoch journals are written; only a failing one is kept.
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public SoakHarness build() {
+            return new SoakHarness(this);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.airport;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flags ATC calls that have gone unanswered for too long: a plane held for
+ * landing, takeoff or a refuel truck past the threshold, or a release that
+ * ATC never acknowledged.
+ *
+ * A daemon thread wakes every quarter threshold and scans the Airport's
+ * ContentionProfiler for outstanding calls. It reads the request channels
+ * without synchronization, so it never slows ATC down; each call is flagged
+ * once, with the controller holding it and its last hold reason. The
+ * threshold is wall-clock time.
+ */
+public final class StarvationWatchdog implements Closeable {
+    private final Airport airport;
+    private final long thresholdNanos;
+    private final Thread thread;
+
+    private StarvationWatchdog(Airport airport, long thresholdMs) {
+        this.airport = airport;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.thread = new Thread(this::watch, "ATC-Watchdog");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching with the given threshold.
+     */
+    public static StarvationWatchdog start(Airport airport, long thresholdMs) {
+        if (thresholdMs < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + thresholdMs);
+        }
+        StarvationWatchdog watchdog = new StarvationWatchdog(airport, thresholdMs);
+        watchdog.thread.start();
+        return watchdog;
+    }
+
+    /**
+     * Starts a watchdog with -Dairport.watchdog.ms (default 30000), or
+     * returns null if it is 0.
+     */
+    public static StarvationWatchdog fromSystemProperties(Airport airport) {
+        long thresholdMs = Long.getLong("airport.watchdog.ms", 30_000);
+        return thresholdMs == 0 ? null : start(airport, thresholdMs);
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        long interval = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            scan(System.nanoTime());
+        }
+    }
+
+    private void scan(long now) {
+        ContentionProfiler profiler = airport.getProfiler();
+        for (Airport.ATCRequest request : profiler.getOutstanding()) {
+            if (request.isDone()) {
+                continue;
+            }
+            // Read after done, so this is the stamp of the call still waiting
+            long submitted = request.submittedNanos;
+            if (now - submitted < thresholdNanos || request.flaggedNanos == submitted) {
+                continue;
+            }
+            request.flaggedNanos = submitted;
+            profiler.starved();
+            Airport.RequestType type = request.type;
+            AtcController.Kind controller = request.forwarded ? AtcController.Kind.RUNWAY : type.controller;
+            Airport.HoldReason reason = request.holdReason;
+            String detail = type + " unanswered for " + TimeUnit.NANOSECONDS.toMillis(now - submitted)
+                    + " ms, held by " + controller + (reason == null ? "" : " (" + reason.getMessage() + ")");
+            airport.getLog().warn("Plane {} starved: {}", request.plane.getId(), detail);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Statistics {
+    private final LatencyHistogram waitTimes; // Constant memory however many planes
+    private final LongAdder totalPassengers;
+    private final LongAdder planesServed;
+    private final SimClock clock;
+    private final long startTime;
+    private final LongAccumulator lastDepartureTime;
+    private final LatencyHistogram[] phaseTimes; // Indexed by FlightPhase ordinal
+    private final List<ResourceMeter> meters;
+
+    public Statistics() {
+        this(SimClock.SYSTEM);
+    }
+
+    public Statistics(SimClock clock) {
+        this(clock, clock.now());
+    }
+
+    /**
+     * Statistics of a run that started at startTime, for one resumed from
+     * a checkpoint.
+     */
+    Statistics(SimClock clock, long startTime) {
+        this.waitTimes = new LatencyHistogram();
+        this.totalPassengers = new LongAdder();
+        this.planesServed = new LongAdder();
+        this.clock = clock;
+        this.startTime = startTime;
+        this.lastDepartureTime = new LongAccumulator(Math::max, startTime);
+        this.phaseTimes = new LatencyHistogram[FlightPhase.values().length];
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = new LatencyHistogram();
+        }
+        this.meters = new CopyOnWriteArrayList<>();
+    }
+
+    // Lock-free: safe to call from any plane or crew thread
+    public void recordPhase(FlightPhase phase, long duration) {
+        phaseTimes[phase.ordinal()].record(duration);
+    }
+
+    public LatencyHistogram.Snapshot phaseSnapshot(FlightPhase phase) {
+        return phaseTimes[phase.ordinal()].snapshot();
+    }
+
+    /**
+     * Creates a utilization meter that is included in the report.
+     */
+    public ResourceMeter newMeter(String name, int capacity) {
+        ResourceMeter meter = new ResourceMeter(name, capacity, startTime);
+        meters.add(meter);
+        return meter;
+    }
+
+    public List<ResourceMeter> getMeters() {
+        return meters;
+    }
+
+    public void recordPlane(Plane plane, long waitTime) {
+        recordPlane(plane.getPassengers(), waitTime);
+    }
+
+    // Lock-free: safe to call from any number of threads
+    public void recordPlane(int passengers, long waitTime) {
+        waitTimes.record(waitTime);
+        totalPassengers.add(passengers);
+        planesServed.increment();
+        lastDepartureTime.accumulate(clock.now());
+    }
+
+    public long getPlanesServed() {
+        return planesServed.sum();
+    }
+
+    public long getTotalPassengers() {
+        return totalPassengers.sum();
+    }
+
+    /**
+     * Wait-time distribution so far; can be read while planes are still recording.
+     */
+    public LatencyHistogram.Snapshot waitTimeSnapshot() {
+        return waitTimes.snapshot();
+    }
+
+    /**
+     * Passengers boarded per hour of simulated time, up to the last departure.
+     */
+    public double passengerThroughputPerHour() {
+        long elapsed = lastDepartureTime.get() - startTime;
+        return elapsed <= 0 ? 0 : getTotalPassengers() * 3_600_000.0 / elapsed;
+    }
+
+    /**
+     * Landings plus takeoffs per hour of simulated time, up to the last
+     * departure.
+     */
+    public double movementsPerHour() {
+        long elapsed = lastDepartureTime.get() - startTime;
+        return elapsed <= 0 ? 0 : getPlanesServed() * 2 * 3_600_000.0 / elapsed;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Writes every accumulator, meters included, for an EventSimulation
+     * checkpoint. Not atomic: call it while nothing is recording.
+     */
+    void writeState(DataOutput out) throws IOException {
+        waitTimes.writeState(out);
+        out.writeLong(totalPassengers.sum());
+        out.writeLong(planesServed.sum());
+        out.writeLong(lastDepartureTime.get());
+        for (LatencyHistogram phase : phaseTimes) {
+            phase.writeState(out);
+        }
+        out.writeShort(meters.size());
+        for (ResourceMeter meter : meters) {
+            out.writeInt(meter.getCapacity());
+            meter.writeState(out);
+        }
+    }
+
+    /**
+     * Restores what writeState() wrote into fresh Statistics whose meters
+     * were created in the same order and with the same capacities.
+     */
+    void readState(DataInput in) throws IOException {
+        waitTimes.readState(in);
+        totalPassengers.add(in.readLong());
+        planesServed.add(in.readLong());
+        lastDepartureTime.accumulate(in.readLong());
+        for (LatencyHistogram phase : phaseTimes) {
+            phase.readState(in);
+        }
+        int count = in.readUnsignedShort();
+        if (count != meters.size()) {
+            throw new IOException("Checkpoint has " + count + " resource meters, this airport " + meters.size());
+        }
+        for (ResourceMeter meter : meters) {
+            int capacity = in.readInt();
+            if (capacity != meter.getCapacity()) {
+                throw new IOException(meter.getName() + " has capacity " + meter.getCapacity() +
+                        ", checkpoint " + capacity);
+            }
+            meter.readState(in);
+        }
+    }
+
+    public void printStatistics() {
+        LatencyHistogram.Snapshot waits = waitTimes.snapshot();
+        if (waits.getCount() == 0) {
+            System.out.println("No planes served");
+            return;
+        }
+
+        System.out.println("Number of planes served: " + getPlanesServed());
+        System.out.println("Total passengers boarded: " + getTotalPassengers());
+        System.out.println("Maximum wait time: " + waits.getMax() + " ms (" +
+                String.format("%.2f", waits.getMax() / 1000.0) + " seconds)");
+        System.out.println("Minimum wait time: " + waits.getMin() + " ms (" +
+                String.format("%.2f", waits.getMin() / 1000.0) + " seconds)");
+        System.out.println("Average wait time: " +
+                String.format("%.2f", waits.getMean()) + " ms (" +
+                String.format("%.2f", waits.getMean() / 1000.0) + " seconds)");
+        System.out.println("Wait time percentiles: p50 " + waits.percentile(50) +
+                " ms, p90 " + waits.percentile(90) +
+                " ms, p99 " + waits.percentile(99) +
+                " ms, p99.9 " + waits.percentile(99.9) + " ms");
+        System.out.println("Simulated time until last departure: " +
+                String.format("%.2f", (lastDepartureTime.get() - startTime) / 1000.0) + " seconds");
+        System.out.println("Passenger throughput: " +
+                String.format("%.1f", passengerThroughputPerHour()) + " passengers/hour");
+        System.out.println("Runway movements: " +
+                String.format("%.1f", movementsPerHour()) + " per hour");
+
+        System.out.println("\nPhase latency (ms):");
+        System.out.println(String.format("  %-30s %8s %9s %7s %7s %7s %7s",
+                "Phase", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (FlightPhase phase : FlightPhase.values()) {
+            LatencyHistogram.Snapshot times = phaseSnapshot(phase);
+            if (times.getCount() == 0) {
+                continue;
+            }
+            System.out.println(String.format("  %-30s %8d %9.1f %7d %7d %7d %7d",
+                    phase.getLabel(), times.getCount(), times.getMean(), times.percentile(50),
+                    times.percentile(90), times.percentile(99), times.getMax()));
+        }
+
+        long end = lastDepartureTime.get();
+        System.out.println("\nResource utilization:");
+        for (ResourceMeter meter : meters) {
+            System.out.println(String.format("  %-30s %6.1f%%  (capacity %d, peak in use %d)",
+                    meter.getName(), meter.utilization(end) * 100, meter.getCapacity(), meter.getPeakInUse()));
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.airport;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo parameter sweep over the discrete-event simulation.
+ *
+ * Every scenario (gate count, ground capacity, refuel trucks, arrival rate)
+ * is run for a number of seeded replications, and the wait-time and
+ * turnaround distributions of all replications are pooled per scenario.
+ * Replication i uses the same seed in every scenario (common random
+ * numbers), so scenarios are compared on identical traffic and differences
+ * in the table come from the configuration rather than the draw.
+ *
+ * Runs are fanned out on a ForkJoinPool. Each replication owns its
+ * EventSimulation, clock and Statistics and prints nothing, so any number of
+ * them can run side by side; results are combined by merging histogram
+ * snapshots up the fork/join tree.
+ */
+public class SweepRunner {
+
+    /**
+     * One point of the parameter grid.
+     */
+    public static final class Scenario {
+        private final int gates;
+        private final AirportConfig config;
+        private final double arrivalsPerHour;
+
+        public Scenario(int gates, AirportConfig config, double arrivalsPerHour) {
+            if (gates < 2) {
+                throw new IllegalArgumentException("Need at least two gates (one is for emergencies): " + gates);
+            }
+            this.gates = gates;
+            this.config = config;
+            this.arrivalsPerHour = arrivalsPerHour;
+        }
+
+        public int getGates() {
+            return gates;
+        }
+
+        public AirportConfig getConfig() {
+            return config;
+        }
+
+        public double getArrivalsPerHour() {
+            return arrivalsPerHour;
+        }
+    }
+
+    /**
+     * Pooled outcome of all replications of one scenario.
+     */
+    public static final class Result {
+        private final Scenario scenario;
+        private final int runs;
+        private final LatencyHistogram.Snapshot waitTimes;
+        private final LatencyHistogram.Snapshot turnaround;
+        private final double movementsSum;
+        private final double movementsSumOfSquares;
+
+        Result(Scenario scenario, int runs, LatencyHistogram.Snapshot waitTimes,
+               LatencyHistogram.Snapshot turnaround, double movementsSum, double movementsSumOfSquares) {
+            this.scenario = scenario;
+            this.runs = runs;
+            this.waitTimes = waitTimes;
+            this.turnaround = turnaround;
+            this.movementsSum = movementsSum;
+            this.movementsSumOfSquares = movementsSumOfSquares;
+        }
+
+        Result merge(Result other) {
+            return new Result(scenario, runs + other.runs,
+                    waitTimes.merge(other.waitTimes), turnaround.merge(other.turnaround),
+                    movementsSum + other.movementsSum, movementsSumOfSquares + other.movementsSumOfSquares);
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public LatencyHistogram.Snapshot getWaitTimes() {
+            return waitTimes;
+        }
+
+        public LatencyHistogram.Snapshot getTurnaround() {
+            return turnaround;
+        }
+
+        /**
+         * Mean runway movements per hour across replications.
+         */
+        public double getMovementsPerHour() {
+            return movementsSum / runs;
+        }
+
+        /**
+         * Half-width of the 95% confidence interval of getMovementsPerHour().
+         */
+        public double getMovementsConfidence() {
+            if (runs < 2) {
+                return 0;
+            }
+            double mean = getMovementsPerHour();
+            double variance = Math.max(0, (movementsSumOfSquares - runs * mean * mean) / (runs - 1));
+            return 1.96 * Math.sqrt(variance / runs);
+        }
+    }
+
+    private final int replications;
+    private final int planesPerRun;
+    private final long baseSeed;
+
+    public SweepRunner(int replications, int planesPerRun, long baseSeed) {
+        if (replications < 1 || planesPerRun < 1) {
+            throw new IllegalArgumentException("Need at least one replication of one plane");
+        }
+        this.replications = replications;
+        this.planesPerRun = planesPerRun;
+        this.baseSeed = baseSeed;
+    }
+
+    /**
+     * Runs every scenario on the pool and returns one result per scenario, in
+     * the same order.
+     */
+    public List<Result> run(List<Scenario> scenarios, ForkJoinPool pool) {
+        return pool.invoke(new SweepTask(this, scenarios));
+    }
+
+    /**
+     * A single replication; public so callers can drive their own fan-out.
+     */
+    public Result runOnce(Scenario scenario, int replication) {
+        EventSimulation simulation = new EventSimulation(scenario.gates, scenario.config);
+        simulation.run(TrafficGenerator.builder()
+                .process(ArrivalProcess.poisson(scenario.arrivalsPerHour))
+                .planes(planesPerRun)
+                .seed(baseSeed + replication)
+                .build());
+        Statistics stats = simulation.getStatistics();
+        double movements = stats.movementsPerHour();
+        return new Result(scenario, 1, stats.waitTimeSnapshot(),
+                stats.phaseSnapshot(FlightPhase.TURNAROUND), movements, movements * movements);
+    }
+
+    // Forks one task per scenario and joins their results in order
+    @SuppressWarnings("serial")
+    private static final class SweepTask extends RecursiveTask<List<Result>> {
+        private final SweepRunner runner;
+        private final List<Scenario> scenarios;
+
+        SweepTask(SweepRunner runner, List<Scenario> scenarios) {
+            this.runner = runner;
+            this.scenarios = scenarios;
+        }
+
+        @Override
+        protected List<Result> compute() {
+            List<ReplicationTask> tasks = new ArrayList<>(scenarios.size());
+            for (Scenario scenario : scenarios) {
+                tasks.add(new ReplicationTask(runner, scenario, 0, runner.replications));
+            }
+            invokeAll(tasks);
+            List<Result> results = new ArrayList<>(tasks.size());
+            for (ReplicationTask task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        }
+    }
+
+    // Splits a range of replications in half until it is a single run
+    @SuppressWarnings("serial")
+    private static final class ReplicationTask extends RecursiveTask<Result> {
+        private final SweepRunner runner;
+        private final Scenario scenario;
+        private final int from;
+        private final int to;
+
+        ReplicationTask(SweepRunner runner, Scenario scenario, int from, int to) {
+            this.runner = runner;
+            this.scenario = scenario;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from == 1) {
+                return runner.runOnce(scenario, from);
+            }
+            int mid = (from + to) >>> 1;
+            ReplicationTask left = new ReplicationTask(runner, scenario, from, mid);
+            left.fork();
+            Result right = new ReplicationTask(runner, scenario, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Prints one row per scenario: pooled wait-time percentiles, mean
+     * turnaround and runway movements per hour with a 95% interval.
+     */
+    public static void printTable(List<Result> results, PrintStream out) {
+        out.println(String.format("%5s %8s %6s %7s %5s %9s %7s %7s %7s %7s %10s %15s",
+                "Gates", "Capacity", "Trucks", "Rate/h", "Runs", "Wait mean", "p50", "p90", "p99", "Max",
+                "Turnaround", "Movements/h"));
+        for (Result result : results) {
+            Scenario scenario = result.getScenario();
+            LatencyHistogram.Snapshot waits = result.getWaitTimes();
+            out.println(String.format("%5d %8d %6d %7.0f %5d %9.1f %7d %7d %7d %7d %10.1f %8.1f +- %5.1f",
+                    scenario.getGates(), scenario.getConfig().getGroundCapacity(),
+                    scenario.getConfig().getRefuelTrucks(), scenario.getArrivalsPerHour(), result.getRuns(),
+                    waits.getMean(), waits.percentile(50), waits.percentile(90), waits.percentile(99),
+                    waits.getMax(), result.getTurnaround().getMean(),
+                    result.getMovementsPerHour(), result.getMovementsConfidence()));
+        }
+    }
+
+    /**
+     * Sweeps the grid given by -Dairport.sweep.gates, -Dairport.sweep.capacity,
+     * -Dairport.sweep.trucks and -Dairport.sweep.rates (comma-separated lists),
+     * with -Dairport.sweep.runs replications of -Dairport.sweep.planes planes
+     * each, seeds from -Dairport.seed, on -Dairport.sweep.parallelism threads.
+     * Runways, separation and refuel policy come from AirportConfig.
+     */
+    public static void main(String[] args) {
+        int[] gates = parseInts(System.getProperty("airport.sweep.gates", "3,4"));
+        int[] capacities = parseInts(System.getProperty("airport.sweep.capacity", "3,4"));
+        int[] trucks = parseInts(System.getProperty("airport.sweep.trucks", "1,2"));
+        double[] rates = parseDoubles(System.getProperty("airport.sweep.rates", "1200,2400"));
+        int runs = Integer.getInteger("airport.sweep.runs", 200);
+        int planes = Integer.getInteger("airport.sweep.planes", 500);
+        long seed = Long.getLong("airport.seed", 1);
+        int parallelism = Integer.getInteger("airport.sweep.parallelism",
+                Runtime.getRuntime().availableProcessors());
+
+        AirportConfig base = AirportConfig.fromSystemProperties();
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int gateCount : gates) {
+            for (int capacity : capacities) {
+                for (int truckCount : trucks) {
+                    AirportConfig config = base.toBuilder()
+                            .groundCapacity(capacity)
+                            .refuelTrucks(truckCount)
+                            .build();
+                    for (double rate : rates) {
+                        scenarios.add(new Scenario(gateCount, config, rate));
+                    }
+                }
+            }
+        }
+
+        System.out.println(Utils.threadInfo() + "Sweeping " + scenarios.size() + " scenarios x " + runs +
+                " runs of " + planes + " planes on " + parallelism + " threads, seed " + seed);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long started = System.nanoTime();
+        List<Result> results;
+        try {
+            results = new SweepRunner(runs, planes, seed).run(scenarios, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        System.out.println(Utils.threadInfo() + "Finished " + scenarios.size() * runs +
+                " simulations in " + elapsedMs + " ms of wall-clock time");
+        System.out.println("\n========== SWEEP (wait times in ms) ==========");
+        printTable(results, System.out);
+    }
+
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static double[] parseDoubles(String list) {
+        String[] parts = list.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,293 @@
+package com.airport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Lazily produces the stream of arriving planes.
+ *
+ * Arrivals are generated one at a time as the simulation asks for them, so
+ * an unlimited or very long run never holds more than the next arrival in
+ * memory. Either a random ArrivalProcess spaces the planes or a schedule file
+ * gives the exact times. Every random choice (gaps, passengers, emergencies)
+ * comes from one seeded Random, so the same seed gives the same traffic.
+ *
+ * Fuel demand is expressed as refuel truck time: planes declaring a fuel
+ * emergency arrive with empty tanks and need the maximum, the rest need an
+ * evenly random amount between the minimum and maximum.
+ *
+ * Schedule files have one arrival per line,
+ * "time_ms[,passengers[,emergency[,refuel_ms]]]", with times relative to the
+ * start of the run and emergency "true" or "false"; blank lines and lines
+ * starting with '#' are skipped. Missing columns are drawn from the
+ * generator's distributions. A malformed line is rejected with its number.
+ */
+public class TrafficGenerator implements Iterator<Arrival> {
+
+    public static final int UNLIMITED = -1;
+
+    private final ArrivalProcess process;
+    private final PassengerDistribution passengerDistribution;
+    private final int emergencyPercent;
+    private final long minRefuelMs;
+    private final long maxRefuelMs;
+    private final int planeLimit;
+    private final long seed;
+    private final Random random;
+    private final BufferedReader schedule;
+
+    private int generated;
+    private long nextTime;
+    private int scheduleLine; // Lines read from the schedule file
+    private Arrival pending; // Read ahead from the schedule file
+
+    private TrafficGenerator(Builder builder) {
+        this.process = builder.process;
+        this.passengerDistribution = builder.passengers;
+        this.emergencyPercent = builder.emergencyPercent;
+        this.minRefuelMs = builder.minRefuelMs;
+        this.maxRefuelMs = builder.maxRefuelMs;
+        this.planeLimit = builder.planes;
+        this.seed = builder.seed;
+        this.random = new Random(builder.seed);
+        try {
+            this.schedule = builder.scheduleFile == null ? null
+                    : Files.newBufferedReader(builder.scheduleFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open schedule " + builder.scheduleFile, e);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds a generator from system properties:
+     * -Dairport.traffic=uniform|poisson|bursty (default uniform, 1-2 s gaps),
+     * -Dairport.planes (default 6, or the whole schedule; 0 for unlimited), -Dairport.rate (arrivals
+     * per hour), -Dairport.burst (mean planes per burst), -Dairport.seed,
+     * -Dairport.emergencyPercent, -Dairport.passengers (max per plane),
+     * -Dairport.refuel.minMs and -Dairport.refuel.maxMs (refuel time range) and
+     * -Dairport.schedule (schedule file, overrides the arrival process).
+     */
+    public static TrafficGenerator fromSystemProperties() {
+        double rate = Double.parseDouble(System.getProperty("airport.rate", "2400"));
+        String traffic = System.getProperty("airport.traffic", "uniform");
+        ArrivalProcess process;
+        switch (traffic) {
+            case "uniform":
+                process = ArrivalProcess.uniform(1000, 2000);
+                break;
+            case "poisson":
+                process = ArrivalProcess.poisson(rate);
+                break;
+            case "bursty":
+                double burst = Double.parseDouble(System.getProperty("airport.burst", "4"));
+                process = ArrivalProcess.bursty(rate, burst, 100);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown airport.traffic: " + traffic);
+        }
+        String schedule = System.getProperty("airport.schedule");
+        // A schedule runs to the end of the file unless capped
+        int planes = Integer.getInteger("airport.planes", schedule == null ? 6 : 0);
+        Builder builder = builder()
+                .process(process)
+                .planes(planes == 0 ? UNLIMITED : planes)
+                .emergencyPercent(Integer.getInteger("airport.emergencyPercent", Config.EMERGENCY_PERCENT))
+                .passengers(PassengerDistribution.uniform(0,
+                        Integer.getInteger("airport.passengers", Config.MAX_PASSENGERS)))
+                .refuelTime(Long.getLong("airport.refuel.minMs", Config.REFUEL_MIN_MS),
+                        Long.getLong("airport.refuel.maxMs", Config.REFUEL_MAX_MS));
+        String seed = System.getProperty("airport.seed");
+        if (seed != null) {
+            builder.seed(Long.parseLong(seed));
+        }
+        if (schedule != null) {
+            builder.schedule(Path.of(schedule));
+        }
+        return builder.build();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (planeLimit != UNLIMITED && generated >= planeLimit) {
+            return false;
+        }
+        if (schedule != null) {
+            if (pending == null) {
+                pending = readScheduled();
+            }
+            return pending != null;
+        }
+        return true;
+    }
+
+    @Override
+    public Arrival next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        generated++;
+        if (schedule != null) {
+            Arrival arrival = pending;
+            pending = null;
+            return arrival;
+        }
+        long time = nextTime;
+        nextTime += process.nextGap(random);
+        int passengers = passengerDistribution.sample(random);
+        boolean emergency = rollEmergency();
+        return new Arrival(generated, time, passengers, emergency, refuelTime(emergency));
+    }
+
+    private long refuelTime(boolean emergency) {
+        if (emergency) {
+            return maxRefuelMs;
+        }
+        return minRefuelMs + (long) (random.nextDouble() * (maxRefuelMs - minRefuelMs + 1));
+    }
+
+    private boolean rollEmergency() {
+        return random.nextInt(100) < emergencyPercent;
+    }
+
+    private Arrival readScheduled() {
+        try {
+            String line;
+            while ((line = schedule.readLine()) != null) {
+                scheduleLine++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    return parseScheduled(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Schedule line " + scheduleLine + ": " + e.getMessage() +
+                            ": " + line, e);
+                }
+            }
+            schedule.close();
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read schedule", e);
+        }
+    }
+
+    private Arrival parseScheduled(String line) {
+        String[] fields = line.split(",");
+        long time = Long.parseLong(fields[0].strip());
+        if (time < nextTime) {
+            throw new IllegalArgumentException("not in time order");
+        }
+        nextTime = time;
+        int passengers = fields.length > 1
+                ? Integer.parseInt(fields[1].strip())
+                : passengerDistribution.sample(random);
+        boolean emergency = fields.length > 2
+                ? parseEmergency(fields[2].strip())
+                : rollEmergency();
+        long refuelMs = fields.length > 3
+                ? Long.parseLong(fields[3].strip())
+                : refuelTime(emergency);
+        return new Arrival(generated + 1, time, passengers, emergency, refuelMs);
+    }
+
+    private static boolean parseEmergency(String field) {
+        if (field.equals("true")) {
+            return true;
+        }
+        if (field.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("emergency must be true or false, not \"" + field + "\"");
+    }
+
+    public static final class Builder {
+        private ArrivalProcess process = ArrivalProcess.uniform(1000, 2000);
+        private PassengerDistribution passengers = PassengerDistribution.uniform(0, Config.MAX_PASSENGERS);
+        private int emergencyPercent = Config.EMERGENCY_PERCENT;
+        private long minRefuelMs = Config.REFUEL_MIN_MS;
+        private long maxRefuelMs = Config.REFUEL_MAX_MS;
+        private int planes = 6;
+        private long seed = System.nanoTime();
+        private Path scheduleFile;
+
+        private Builder() {
+        }
+
+        public Builder process(ArrivalProcess process) {
+            this.process = process;
+            return this;
+        }
+
+        public Builder passengers(PassengerDistribution passengers) {
+            this.passengers = passengers;
+            return this;
+        }
+
+        public Builder emergencyPercent(int emergencyPercent) {
+            if (emergencyPercent < 0 || emergencyPercent > 100) {
+                throw new IllegalArgumentException("Emergency percent must be 0-100: " + emergencyPercent);
+            }
+            this.emergencyPercent = emergencyPercent;
+            return this;
+        }
+
+        /**
+         * Range of refuel truck time for planes that are not fuel emergencies;
+         * emergencies always need the maximum.
+         */
+        public Builder refuelTime(long minRefuelMs, long maxRefuelMs) {
+            if (minRefuelMs < 0 || maxRefuelMs < minRefuelMs) {
+                throw new IllegalArgumentException("Invalid refuel range: " + minRefuelMs + "-" + maxRefuelMs);
+            }
+            this.minRefuelMs = minRefuelMs;
+            this.maxRefuelMs = maxRefuelMs;
+            return this;
+        }
+
+        /**
+         * Number of planes to generate, or UNLIMITED.
+         */
+        public Builder planes(int planes) {
+            if (planes < 0 && planes != UNLIMITED) {
+                throw new IllegalArgumentException("Invalid plane count: " + planes);
+            }
+            this.planes = planes;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Takes arrival times (and optionally passengers and emergencies)
+         * from a file instead of the arrival process. The file is read
+         * lazily, one line per arrival.
+         */
+        public Builder schedule(Path scheduleFile) {
+            this.scheduleFile = scheduleFile;
+            return this;
+        }
+
+        public TrafficGenerator build() {
+            return new TrafficGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.airport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * The ground tasks of a turnaround and the order they must respect, as a
+ * dependency graph.
+ *
+ * A task starts as soon as every task it depends on has finished, so
+ * independent tasks overlap and the turnaround takes as long as the
+ * graph's critical path. The graph says nothing about how a task runs:
+ * run() takes a function that starts each task and returns a future, so
+ * the threaded Plane runs crews on a shared pool, AsyncPlane on timers, and
+ * EventSimulation walks the same graph with events.
+ *
+ * Immutable and shared by every plane it applies to.
+ */
+public final class TurnaroundGraph {
+
+    public enum Task {
+        DISEMBARK("Disembark"),
+        CLEANING("Cleaning"),
+        REFUEL("Refuel"),
+        BOARDING("Boarding");
+
+        private final String crew;
+
+        Task(String crew) {
+            this.crew = crew;
+        }
+
+        /**
+         * Crew name prefix, e.g. "Refuel" for thread name "Refuel-P3".
+         */
+        public String getCrew() {
+            return crew;
+        }
+
+        /**
+         * Crew time the task needs, not counting any wait for a refuel truck.
+         */
+        public long duration(long refuelTime) {
+            switch (this) {
+                case DISEMBARK:
+                    return Config.DISEMBARK_MS;
+                case CLEANING:
+                    return Config.CLEANING_MS;
+                case REFUEL:
+                    return refuelTime;
+                default:
+                    return Config.BOARDING_MS;
+            }
+        }
+    }
+
+    private static final Task[] TASKS = Task.values();
+
+    /**
+     * The original sequence: disembark and cleaning together, then refuel,
+     * then boarding.
+     */
+    public static final TurnaroundGraph STANDARD = builder("standard")
+            .task(Task.DISEMBARK)
+            .task(Task.CLEANING)
+            .task(Task.REFUEL, Task.DISEMBARK, Task.CLEANING)
+            .task(Task.BOARDING, Task.REFUEL)
+            .build();
+
+    /**
+     * Refuelling starts at docking, alongside disembarking and cleaning, as
+     * allowed with fire cover on stand; boarding still waits for all three,
+     * so no passenger boards while fuel is flowing.
+     */
+    public static final TurnaroundGraph OVERLAPPED_REFUEL = builder("overlapped")
+            .task(Task.DISEMBARK)
+            .task(Task.CLEANING)
+            .task(Task.REFUEL)
+            .task(Task.BOARDING, Task.DISEMBARK, Task.CLEANING, Task.REFUEL)
+            .build();
+
+    private final String name;
+    private final Map<Task, EnumSet<Task>> dependencies;
+    private final Map<Task, EnumSet<Task>> dependents;
+    private final List<Task> order; // Topological: every task after its dependencies
+
+    private TurnaroundGraph(Builder builder) {
+        this.name = builder.name;
+        this.dependencies = new EnumMap<>(builder.dependencies);
+        this.dependents = new EnumMap<>(Task.class);
+        for (Task task : dependencies.keySet()) {
+            dependents.put(task, EnumSet.noneOf(Task.class));
+        }
+        for (Map.Entry<Task, EnumSet<Task>> entry : dependencies.entrySet()) {
+            for (Task dependency : entry.getValue()) {
+                dependents.get(dependency).add(entry.getKey());
+            }
+        }
+        this.order = topologicalOrder();
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * A built-in graph by name: "standard" or "overlapped".
+     */
+    public static TurnaroundGraph parse(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "standard":
+                return STANDARD;
+            case "overlapped":
+                return OVERLAPPED_REFUEL;
+            default:
+                throw new IllegalArgumentException("Unknown turnaround graph: " + name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tasks in an order where each comes after everything it depends on.
+     */
+    public List<Task> getOrder() {
+        return order;
+    }
+
+    public EnumSet<Task> dependenciesOf(Task task) {
+        return EnumSet.copyOf(dependencies.get(task));
+    }
+
+    public EnumSet<Task> dependentsOf(Task task) {
+        return EnumSet.copyOf(dependents.get(task));
+    }
+
+    /**
+     * Length of the longest dependency chain, given each task's duration
+     * (waits for trucks not included).
+     */
+    public long criticalPath(long refuelTime) {
+        Map<Task, Long> finish = new EnumMap<>(Task.class);
+        long longest = 0;
+        for (Task task : order) {
+            long start = 0;
+            for (Task dependency : dependencies.get(task)) {
+                start = Math.max(start, finish.get(dependency));
+            }
+            long end = start + task.duration(refuelTime);
+            finish.put(task, end);
+            longest = Math.max(longest, end);
+        }
+        return longest;
+    }
+
+    /**
+     * Starts every task once its dependencies are done. The start function
+     * must not block: it kicks the task off and returns a future that
+     * completes when the task is finished. The result completes when every
+     * task has; if one fails, the tasks after it are skipped and the result
+     * fails with it.
+     */
+    public CompletableFuture<Void> run(Function<Task, CompletableFuture<Void>> start) {
+        Map<Task, CompletableFuture<Void>> done = new EnumMap<>(Task.class);
+        for (Task task : order) {
+            EnumSet<Task> after = dependencies.get(task);
+            CompletableFuture<Void> finished;
+            if (after.isEmpty()) {
+                finished = start.apply(task);
+            } else {
+                CompletableFuture<?>[] ready = new CompletableFuture<?>[after.size()];
+                int i = 0;
+                for (Task dependency : after) {
+                    ready[i++] = done.get(dependency);
+                }
+                finished = CompletableFuture.allOf(ready).thenCompose(ignored -> start.apply(task));
+            }
+            done.put(task, finished);
+        }
+        return CompletableFuture.allOf(done.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * The dependencies packed into 16 bits, for the journal: bit
+     * (task * 4 + dependency) is set when task waits for dependency.
+     */
+    long toBits() {
+        long bits = 0;
+        for (Map.Entry<Task, EnumSet<Task>> entry : dependencies.entrySet()) {
+            for (Task dependency : entry.getValue()) {
+                bits |= 1L << (entry.getKey().ordinal() * TASKS.length + dependency.ordinal());
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Inverse of toBits(); a built-in graph comes back as itself.
+     */
+    static TurnaroundGraph fromBits(long bits) {
+        for (TurnaroundGraph builtIn : new TurnaroundGraph[] {STANDARD, OVERLAPPED_REFUEL}) {
+            if (builtIn.toBits() == bits) {
+                return builtIn;
+            }
+        }
+        Builder builder = builder("custom");
+        for (Task task : TASKS) {
+            List<Task> after = new ArrayList<>();
+            for (Task dependency : TASKS) {
+                if ((bits & 1L << (task.ordinal() * TASKS.length + dependency.ordinal())) != 0) {
+                    after.add(dependency);
+                }
+            }
+            builder.task(task, after.toArray(new Task[0]));
+        }
+        return builder.build();
+    }
+
+    private List<Task> topologicalOrder() {
+        List<Task> sorted = new ArrayList<>();
+        EnumSet<Task> placed = EnumSet.noneOf(Task.class);
+        while (sorted.size() < dependencies.size()) {
+            boolean progress = false;
+            for (Task task : TASKS) {
+                if (dependencies.containsKey(task) && !placed.contains(task)
+                        && placed.containsAll(dependencies.get(task))) {
+                    sorted.add(task);
+                    placed.add(task);
+                    progress = true;
+                }
+            }
+            if (!progress) {
+                throw new IllegalArgumentException("Turnaround graph " + name + " has a cycle");
+            }
+        }
+        return List.copyOf(sorted);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Start and end times of each task of one plane's turnaround, and when
+     * its refuel truck arrived. Written by whichever thread runs a task and
+     * read once run() has completed.
+     */
+    public static final class Timeline {
+        private final long[] start = new long[TASKS.length];
+        private final long[] end = new long[TASKS.length];
+        private long truckAssigned;
+
+        public void started(Task task, long time) {
+            start[task.ordinal()] = time;
+        }
+
+        public void finished(Task task, long time) {
+            end[task.ordinal()] = time;
+        }
+
+        public void truckAssigned(long time) {
+            truckAssigned = time;
+        }
+
+        public long getStart(Task task) {
+            return start[task.ordinal()];
+        }
+
+        public long getEnd(Task task) {
+            return end[task.ordinal()];
+        }
+
+        void writeState(DataOutput out) throws IOException {
+            for (int i = 0; i < TASKS.length; i++) {
+                out.writeLong(start[i]);
+                out.writeLong(end[i]);
+            }
+            out.writeLong(truckAssigned);
+        }
+
+        void readState(DataInput in) throws IOException {
+            for (int i = 0; i < TASKS.length; i++) {
+                start[i] = in.readLong();
+                end[i] = in.readLong();
+            }
+            truckAssigned = in.readLong();
+        }
+
+        /**
+         * Reports the turnaround in FlightPhase terms: ground service until
+         * disembarking and cleaning are both done, the wait for a truck,
+         * refuelling and boarding. Phases overlap when the graph does.
+         */
+        public void forEachPhase(long docked, ObjLongConsumer<FlightPhase> phases) {
+            phases.accept(FlightPhase.GROUND_SERVICE,
+                    Math.max(getEnd(Task.DISEMBARK), getEnd(Task.CLEANING)) - docked);
+            phases.accept(FlightPhase.REFUEL_WAIT, truckAssigned - getStart(Task.REFUEL));
+            phases.accept(FlightPhase.REFUELING, getEnd(Task.REFUEL) - truckAssigned);
+            phases.accept(FlightPhase.BOARDING, getEnd(Task.BOARDING) - getStart(Task.BOARDING));
+        }
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final Map<Task, EnumSet<Task>> dependencies = new EnumMap<>(Task.class);
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a task that starts once all the given tasks have finished.
+         */
+        public Builder task(Task task, Task... after) {
+            EnumSet<Task> set = EnumSet.noneOf(Task.class);
+            for (Task dependency : after) {
+                set.add(dependency);
+            }
+            if (set.contains(task)) {
+                throw new IllegalArgumentException(task + " cannot depend on itself");
+            }
+            dependencies.put(task, set);
+            return this;
+        }
+
+        public TurnaroundGraph build() {
+            for (Task task : TASKS) {
+                if (!dependencies.containsKey(task)) {
+                    throw new IllegalArgumentException("Turnaround graph " + name + " is missing " + task);
+                }
+            }
+            return new TurnaroundGraph(this);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package com.airport;
+
 public class Utils {
     
     /**
@@ -0,0 +1,40 @@
+package com.airport;
+
+/**
+ * Clock whose time only moves when the owner advances it.
+ *
+ * Used by the discrete-event engine: time jumps straight to the next
+ * event, so simulated hours pass in however long the CPU needs. Intended for
+ * a single driving thread; readers on other threads see a recent value.
+ */
+public class VirtualClock implements SimClock {
+    private volatile long now;
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    public VirtualClock(long startMillis) {
+        this.now = startMillis;
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Sleeping on a virtual clock simply moves time forward.
+     */
+    @Override
+    public void sleep(long millis) {
+        advanceTo(now + millis);
+    }
+
+    public void advanceTo(long time) {
+        if (time < now) {
+            throw new IllegalArgumentException("Clock cannot move backwards: " + time + " < " + now);
+        }
+        now = time;
+    }
+}